@@ -0,0 +1,33 @@
+package com.commerce.ecommerce.controller;
+
+import com.commerce.ecommerce.service.SalesAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private static final int MAX_DAYS = 3660;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    // Platform sales for orders placed between from and to (inclusive); defaults to the last 30 days
+    @GetMapping("/sales")
+    public ResponseEntity<?> getSales(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                      @RequestParam(defaultValue = "10") int top) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end) || start.plusDays(MAX_DAYS).isBefore(end)) {
+            return ResponseEntity.badRequest().body("from must not be after to, and the range is limited to " + MAX_DAYS + " days");
+        }
+        return ResponseEntity.ok(salesAnalyticsService.getSales(start, end, Math.max(0, Math.min(top, 100))));
+    }
+}
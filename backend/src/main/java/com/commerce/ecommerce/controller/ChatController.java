@@ -1,10 +1,14 @@
 package com.commerce.ecommerce.controller;
 
 import com.commerce.ecommerce.model.Chat;
+import com.commerce.ecommerce.service.ChatInboxService;
+import com.commerce.ecommerce.service.ChatPushService;
 import com.commerce.ecommerce.service.ChatService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
 import java.util.List;
@@ -18,6 +22,12 @@ public class ChatController {
     @Autowired
     private ChatService chatService;
 
+    @Autowired
+    private ChatPushService chatPushService;
+
+    @Autowired
+    private ChatInboxService chatInboxService;
+
     @PostMapping
     public ResponseEntity<Chat> sendMessage(@RequestParam Long senderId, @RequestParam Long receiverId, @RequestBody Map<String, String> body) {
         String message = body.get("message");
@@ -25,9 +35,37 @@ public class ChatController {
         return ResponseEntity.ok(chat);
     }
 
+    // Without cursor/limit the whole conversation is returned for existing clients
     @GetMapping("/conversation")
-    public ResponseEntity<List<Chat>> getConversation(@RequestParam Long userId1, @RequestParam Long userId2) {
-        return ResponseEntity.ok(chatService.getConversation(userId1, userId2));
+    public ResponseEntity<?> getConversation(@RequestParam Long userId1, @RequestParam Long userId2,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer limit) {
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(chatService.getConversation(userId1, userId2));
+        }
+        try {
+            return ResponseEntity.ok(chatService.getConversationPage(userId1, userId2, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Server-sent events: "chat" events carry each new message sent or received by the user
+    @GetMapping(value = "/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable Long userId) {
+        return chatPushService.subscribe(userId);
+    }
+
+    // The user's conversations with their last message and unread count, most recent first
+    @GetMapping("/{userId}/inbox")
+    public ResponseEntity<?> getInbox(@PathVariable Long userId,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(chatInboxService.getInbox(userId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/{userId}")
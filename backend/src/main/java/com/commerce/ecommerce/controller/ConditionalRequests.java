@@ -0,0 +1,25 @@
+package com.commerce.ecommerce.controller;
+
+import com.commerce.ecommerce.dto.DataVersion;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Arrays;
+
+// Conditional GET support shared by the polled listing endpoints
+final class ConditionalRequests {
+
+    private ConditionalRequests() {}
+
+    /**
+     * Sets an ETag on the response and returns true when the client's
+     * If-None-Match still matches, in which case the handler should return
+     * null and Spring answers 304 without a body. No Last-Modified is sent:
+     * deleting a row leaves the newest updatedAt unchanged, so
+     * If-Modified-Since alone would wrongly answer 304; the ETag carries the
+     * row count as well.
+     */
+    static boolean notModified(WebRequest request, DataVersion version, Object... variant) {
+        String etag = version.toETag(variant.length == 0 ? null : Arrays.toString(variant));
+        return request.checkNotModified(etag);
+    }
+}
@@ -0,0 +1,45 @@
+package com.commerce.ecommerce.controller;
+
+import com.commerce.ecommerce.service.FlashSaleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@CrossOrigin(origins = "*")
+@RestController
+@RequestMapping("/api/flash-sales")
+public class FlashSaleController {
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    // Products on flash sale and the units left in memory
+    @GetMapping
+    public ResponseEntity<Map<Long, Integer>> getActiveSales() {
+        return ResponseEntity.ok(flashSaleService.getActiveSales());
+    }
+
+    @PostMapping("/{productId}")
+    public ResponseEntity<Map<Long, Integer>> startSale(@PathVariable Long productId) {
+        if (!flashSaleService.start(productId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(flashSaleService.getActiveSales());
+    }
+
+    // Conflict while orders granted by the sale are still in progress; the sale keeps running
+    @DeleteMapping("/{productId}")
+    public ResponseEntity<?> stopSale(@PathVariable Long productId) {
+        try {
+            if (!flashSaleService.stop(productId)) {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
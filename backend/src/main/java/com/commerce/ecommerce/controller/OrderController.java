@@ -1,12 +1,23 @@
 package com.commerce.ecommerce.controller;
 
+import com.commerce.ecommerce.dto.SellerStatsDTO;
 import com.commerce.ecommerce.model.Order;
+import com.commerce.ecommerce.service.FlashSaleActiveException;
+import com.commerce.ecommerce.service.IdempotencyKeyInUseException;
+import com.commerce.ecommerce.service.IdempotencyKeyMismatchException;
+import com.commerce.ecommerce.service.IdempotencyService;
+import com.commerce.ecommerce.service.InsufficientStockException;
+import com.commerce.ecommerce.service.InvalidStatusTransitionException;
 import com.commerce.ecommerce.service.OrderService;
+import com.commerce.ecommerce.service.SellerStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.time.LocalDate;
 import java.util.Optional;
 
 @CrossOrigin(origins = "*")
@@ -17,20 +28,80 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private SellerStatsService sellerStatsService;
+
+    // With an Idempotency-Key header, retries return the order created by the first request;
+    // reusing the key for a different order is rejected with 422
     @PostMapping
-    public ResponseEntity<Order> createOrder(@RequestBody Order order) {
-        Order newOrder = orderService.createOrder(order);
-        return ResponseEntity.ok(newOrder);
+    public ResponseEntity<?> createOrder(@RequestBody Order order,
+                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        try {
+            Order newOrder = idempotencyKey == null ? orderService.createOrder(order)
+                    : idempotencyService.createOnce(idempotencyKey, IdempotencyService.hashRequest(order),
+                            () -> orderService.createOrder(order));
+            return ResponseEntity.ok(newOrder);
+        } catch (InsufficientStockException | FlashSaleActiveException | IdempotencyKeyInUseException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IdempotencyKeyMismatchException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
+    // Without cursor/limit the whole history is returned for existing clients
     @GetMapping("/buyer/{buyerId}")
-    public ResponseEntity<List<Order>> getBuyerOrders(@PathVariable Long buyerId) {
-        return ResponseEntity.ok(orderService.getBuyerOrders(buyerId));
+    public ResponseEntity<?> getBuyerOrders(@PathVariable Long buyerId,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limit,
+                                            WebRequest request) {
+        if (ConditionalRequests.notModified(request, orderService.getBuyerOrdersVersion(buyerId), cursor, limit)) {
+            return null;
+        }
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(orderService.getBuyerOrderHistory(buyerId));
+        }
+        try {
+            return ResponseEntity.ok(orderService.getBuyerOrdersPage(buyerId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/seller/{sellerId}")
-    public ResponseEntity<List<Order>> getSellerOrders(@PathVariable Long sellerId) {
-        return ResponseEntity.ok(orderService.getSellerOrders(sellerId));
+    public ResponseEntity<?> getSellerOrders(@PathVariable Long sellerId,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer limit,
+                                             WebRequest request) {
+        if (ConditionalRequests.notModified(request, orderService.getSellerOrdersVersion(sellerId), cursor, limit)) {
+            return null;
+        }
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(orderService.getSellerOrderHistory(sellerId));
+        }
+        try {
+            return ResponseEntity.ok(orderService.getSellerOrdersPage(sellerId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Daily rollups for the seller dashboard; defaults to the last 30 days
+    @GetMapping("/seller/{sellerId}/stats")
+    public ResponseEntity<?> getSellerStats(@PathVariable Long sellerId,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body("from must not be after to");
+        }
+        SellerStatsDTO stats = sellerStatsService.getStats(sellerId, start, end);
+        return ResponseEntity.ok(stats);
     }
 
     @GetMapping("/{orderId}")
@@ -41,12 +112,18 @@ public class OrderController {
     }
 
     @PutMapping("/{orderId}/status")
-    public ResponseEntity<Order> updateOrderStatus(@PathVariable Long orderId, @RequestParam String status) {
-        Order updatedOrder = orderService.updateOrderStatus(orderId, status);
-        if (updatedOrder != null) {
-            return ResponseEntity.ok(updatedOrder);
+    public ResponseEntity<?> updateOrderStatus(@PathVariable Long orderId, @RequestParam String status) {
+        try {
+            Order updatedOrder = orderService.updateOrderStatus(orderId, status);
+            if (updatedOrder != null) {
+                return ResponseEntity.ok(updatedOrder);
+            }
+            return ResponseEntity.notFound().build();
+        } catch (InvalidStatusTransitionException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
-        return ResponseEntity.notFound().build();
     }
 
     @DeleteMapping("/{orderId}")
@@ -55,8 +132,21 @@ public class OrderController {
         return ResponseEntity.noContent().build();
     }
 
+    // Without cursor/limit the full list is returned for existing clients
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<?> getAllOrders(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit,
+                                          WebRequest request) {
+        if (ConditionalRequests.notModified(request, orderService.getOrdersVersion(), cursor, limit)) {
+            return null;
+        }
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(orderService.getAllOrders());
+        }
+        try {
+            return ResponseEntity.ok(orderService.getOrdersPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 }
@@ -1,14 +1,22 @@
 package com.commerce.ecommerce.controller;
 
+import com.commerce.ecommerce.dto.FacetedSearchResponse;
+import com.commerce.ecommerce.dto.ProductChangesResponse;
+import com.commerce.ecommerce.dto.SuggestionDTO;
 import com.commerce.ecommerce.model.Product;
 import com.commerce.ecommerce.model.User;
+import com.commerce.ecommerce.service.FlashSaleActiveException;
 import com.commerce.ecommerce.service.ProductService;
+import com.commerce.ecommerce.service.ProductSuggestIndex;
 import com.commerce.ecommerce.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @CrossOrigin(origins = "*")
@@ -22,15 +30,63 @@ public class ProductController {
     @Autowired
     private UserService userService;
 
+    private static final String LISTING = "listing";
+
+    // Without cursor/limit the full list is returned for existing clients.
+    // Lists return the listing view unless view=full asks for whole products.
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<?> getAllProducts(@RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limit,
+                                            @RequestParam(defaultValue = LISTING) String view,
+                                            WebRequest request) {
+        if (ConditionalRequests.notModified(request, productService.getCatalogVersion(), "all", view, cursor, limit)) {
+            return null;
+        }
+        boolean full = isFull(view);
+        if (cursor == null && limit == null) {
+            // Read the sequence first so a client resuming the change feed from it cannot miss writes
+            long sequence = productService.getLatestChangeSequence();
+            List<?> products = full ? productService.getAllProducts() : productService.getAllProductListings();
+            return ResponseEntity.ok()
+                    .header("X-Change-Sequence", String.valueOf(sequence))
+                    .body(products);
+        }
+        try {
+            return ResponseEntity.ok(full ? productService.getProductsPage(cursor, limit)
+                    : productService.getProductListingsPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<Product>> getActiveProducts() {
-        return ResponseEntity.ok(productService.getActiveProducts());
+    public ResponseEntity<?> getActiveProducts(@RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit,
+                                               @RequestParam(defaultValue = LISTING) String view,
+                                               WebRequest request) {
+        if (ConditionalRequests.notModified(request, productService.getCatalogVersion(), "active", view, cursor, limit)) {
+            return null;
+        }
+        boolean full = isFull(view);
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(full ? productService.getActiveProducts() : productService.getActiveProductListings());
+        }
+        try {
+            return ResponseEntity.ok(full ? productService.getActiveProductsPage(cursor, limit)
+                    : productService.getActiveProductListingsPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Long>> getCacheStats() {
+        return ResponseEntity.ok(productService.getCacheStats());
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChangesResponse> getChanges(@RequestParam long since) {
+        return ResponseEntity.ok(productService.getChangesSince(since));
     }
 
     @GetMapping("/{id}")
@@ -41,18 +97,56 @@ public class ProductController {
     }
 
     @GetMapping("/seller/{sellerId}")
-    public ResponseEntity<List<Product>> getProductsBySeller(@PathVariable Long sellerId) {
-        return ResponseEntity.ok(productService.getProductsBySeller(sellerId));
+    public ResponseEntity<List<?>> getProductsBySeller(@PathVariable Long sellerId,
+                                                       @RequestParam(defaultValue = LISTING) String view,
+                                                       WebRequest request) {
+        if (ConditionalRequests.notModified(request, productService.getSellerCatalogVersion(sellerId), view)) {
+            return null;
+        }
+        return ResponseEntity.ok(isFull(view) ? productService.getProductsBySeller(sellerId)
+                : productService.getProductListingsBySeller(sellerId));
     }
 
+    // Returns at most limit products (the default page size when absent, never more than the maximum)
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String keyword) {
-        return ResponseEntity.ok(productService.searchProducts(keyword));
+    public ResponseEntity<List<?>> searchProducts(@RequestParam String keyword,
+                                                  @RequestParam(defaultValue = "and") String operator,
+                                                  @RequestParam(defaultValue = "false") boolean fuzzy,
+                                                  @RequestParam(required = false) Integer limit,
+                                                  @RequestParam(defaultValue = LISTING) String view) {
+        boolean full = isFull(view);
+        if (fuzzy) {
+            return ResponseEntity.ok(full ? productService.searchProductsFuzzy(keyword, limit)
+                    : productService.searchProductListingsFuzzy(keyword, limit));
+        }
+        boolean matchAll = !"or".equalsIgnoreCase(operator);
+        return ResponseEntity.ok(full ? productService.searchProducts(keyword, matchAll, limit)
+                : productService.searchProductListings(keyword, matchAll, limit));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(@RequestParam String prefix,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.suggest(prefix, Math.min(limit, ProductSuggestIndex.MAX_SUGGESTIONS)));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<FacetedSearchResponse> facetedSearch(@RequestParam(required = false) String keyword,
+                                                               @RequestParam(required = false) String category,
+                                                               @RequestParam(required = false) Double minPrice,
+                                                               @RequestParam(required = false) Double maxPrice,
+                                                               @RequestParam(required = false) Double minRating,
+                                                               @RequestParam(defaultValue = "true") boolean inStock,
+                                                               @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productService.facetedSearch(keyword, category, minPrice, maxPrice,
+                minRating, inStock, limit));
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable String category) {
-        return ResponseEntity.ok(productService.getProductsByCategory(category));
+    public ResponseEntity<List<?>> getProductsByCategory(@PathVariable String category,
+                                                         @RequestParam(defaultValue = LISTING) String view) {
+        return ResponseEntity.ok(isFull(view) ? productService.getProductsByCategory(category)
+                : productService.getProductListingsByCategory(category));
     }
 
     @PostMapping
@@ -67,12 +161,16 @@ public class ProductController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Product> updateProduct(@PathVariable Long id, @RequestBody Product product) {
-        Product updatedProduct = productService.updateProduct(id, product);
-        if (updatedProduct != null) {
-            return ResponseEntity.ok(updatedProduct);
+    public ResponseEntity<?> updateProduct(@PathVariable Long id, @RequestBody Product product) {
+        try {
+            Product updatedProduct = productService.updateProduct(id, product);
+            if (updatedProduct != null) {
+                return ResponseEntity.ok(updatedProduct);
+            }
+            return ResponseEntity.notFound().build();
+        } catch (FlashSaleActiveException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         }
-        return ResponseEntity.notFound().build();
     }
 
     @DeleteMapping("/{id}")
@@ -80,4 +178,8 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private static boolean isFull(String view) {
+        return "full".equalsIgnoreCase(view);
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @CrossOrigin(origins = "*")
 @RestController
@@ -17,14 +18,29 @@ public class ReviewController {
     private ReviewService reviewService;
 
     @PostMapping
-    public ResponseEntity<Review> createReview(@RequestBody Review review) {
-        Review newReview = reviewService.createReview(review);
-        return ResponseEntity.ok(newReview);
+    public ResponseEntity<?> createReview(@RequestBody Review review) {
+        try {
+            Review newReview = reviewService.createReview(review);
+            return ResponseEntity.ok(newReview);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
+    // Without sort/cursor/limit the full list is returned for existing clients
     @GetMapping("/product/{productId}")
-    public ResponseEntity<List<Review>> getProductReviews(@PathVariable Long productId) {
-        return ResponseEntity.ok(reviewService.getProductReviews(productId));
+    public ResponseEntity<?> getProductReviews(@PathVariable Long productId,
+                                               @RequestParam(required = false) String sort,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit) {
+        if (sort == null && cursor == null && limit == null) {
+            return ResponseEntity.ok(reviewService.getProductReviews(productId));
+        }
+        try {
+            return ResponseEntity.ok(reviewService.getProductReviewsPage(productId, sort != null ? sort : "newest", cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/user/{userId}")
@@ -32,6 +48,17 @@ public class ReviewController {
         return ResponseEntity.ok(reviewService.getUserReviews(userId));
     }
 
+    @GetMapping("/rating-queue/stats")
+    public ResponseEntity<Map<String, Long>> getRatingQueueStats() {
+        return ResponseEntity.ok(reviewService.getRatingQueueStats());
+    }
+
+    // Recount all seller ratings from reviews, for backfills and consistency checks
+    @PostMapping("/seller-ratings/rebuild")
+    public ResponseEntity<Map<String, Long>> rebuildSellerRatings() {
+        return ResponseEntity.ok(reviewService.rebuildSellerRatings());
+    }
+
     @DeleteMapping("/{reviewId}")
     public ResponseEntity<Void> deleteReview(@PathVariable Long reviewId) {
         reviewService.deleteReview(reviewId);
@@ -0,0 +1,45 @@
+package com.commerce.ecommerce.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Cheap version of a listing scope: row count plus the newest updatedAt.
+ * Any insert, update or delete in the scope changes at least one of the two,
+ * so only the pair (the ETag) identifies a version; the timestamp alone does
+ * not move on a delete.
+ */
+public class DataVersion {
+    private final long count;
+    private final LocalDateTime lastModified;
+
+    public DataVersion(Long count, LocalDateTime lastModified) {
+        this.count = count == null ? 0 : count;
+        this.lastModified = lastModified;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    // Epoch millis of the newest row, or -1 for an empty scope
+    public long getLastModifiedMillis() {
+        if (lastModified == null) {
+            return -1;
+        }
+        return lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Strong ETag for one representation of the scope (variant covers query params such as cursor/limit)
+    public String toETag(String variant) {
+        String tag = count + "-" + getLastModifiedMillis();
+        if (variant != null && !variant.isEmpty()) {
+            tag += "-" + Integer.toHexString(variant.hashCode());
+        }
+        return "\"" + tag + "\"";
+    }
+}
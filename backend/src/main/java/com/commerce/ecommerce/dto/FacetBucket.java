@@ -0,0 +1,41 @@
+package com.commerce.ecommerce.dto;
+
+public class FacetBucket {
+    private double from;
+    private Double to; // null for the open-ended last bucket
+    private int count;
+
+    // Constructors
+    public FacetBucket() {}
+
+    public FacetBucket(double from, Double to, int count) {
+        this.from = from;
+        this.to = to;
+        this.count = count;
+    }
+
+    // Getters and Setters
+    public double getFrom() {
+        return from;
+    }
+
+    public void setFrom(double from) {
+        this.from = from;
+    }
+
+    public Double getTo() {
+        return to;
+    }
+
+    public void setTo(Double to) {
+        this.to = to;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,56 @@
+package com.commerce.ecommerce.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class FacetedSearchResponse {
+    private List<ProductDTO> products;
+    private int total;
+    private Map<String, Integer> categories;
+    private List<FacetBucket> priceBuckets;
+    private List<FacetBucket> ratingBuckets;
+
+    // Constructors
+    public FacetedSearchResponse() {}
+
+    // Getters and Setters
+    public List<ProductDTO> getProducts() {
+        return products;
+    }
+
+    public void setProducts(List<ProductDTO> products) {
+        this.products = products;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public Map<String, Integer> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(Map<String, Integer> categories) {
+        this.categories = categories;
+    }
+
+    public List<FacetBucket> getPriceBuckets() {
+        return priceBuckets;
+    }
+
+    public void setPriceBuckets(List<FacetBucket> priceBuckets) {
+        this.priceBuckets = priceBuckets;
+    }
+
+    public List<FacetBucket> getRatingBuckets() {
+        return ratingBuckets;
+    }
+
+    public void setRatingBuckets(List<FacetBucket> ratingBuckets) {
+        this.ratingBuckets = ratingBuckets;
+    }
+}
@@ -1,5 +1,11 @@
 package com.commerce.ecommerce.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class OrderDTO {
     private Long id;
     private Long buyerId;
@@ -7,8 +13,9 @@ public class OrderDTO {
     private double totalPrice;
     private String status;
     private String shippingAddress;
-    private Object items;
-    private String createdAt;
+    private List<OrderItemDTO> items;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
     private String buyerName;
     private String sellerName;
 
@@ -64,22 +71,30 @@ public class OrderDTO {
         this.shippingAddress = shippingAddress;
     }
 
-    public Object getItems() {
+    public List<OrderItemDTO> getItems() {
         return items;
     }
 
-    public void setItems(Object items) {
+    public void setItems(List<OrderItemDTO> items) {
         this.items = items;
     }
 
-    public String getCreatedAt() {
+    public LocalDateTime getCreatedAt() {
         return createdAt;
     }
 
-    public void setCreatedAt(String createdAt) {
+    public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public String getBuyerName() {
         return buyerName;
     }
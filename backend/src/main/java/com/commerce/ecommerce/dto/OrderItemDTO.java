@@ -0,0 +1,65 @@
+package com.commerce.ecommerce.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+public class OrderItemDTO {
+    private Long orderId;
+    private Long id;
+    private Long productId;
+    private int quantity;
+    private double price;
+
+    // Constructors
+    public OrderItemDTO() {}
+
+    // Selected directly by OrderItemRepository.findItemsByOrderIds
+    public OrderItemDTO(Long orderId, Long id, Long productId, int quantity, double price) {
+        this.orderId = orderId;
+        this.id = id;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.price = price;
+    }
+
+    // Getters and Setters
+    @JsonIgnore
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+}
@@ -0,0 +1,53 @@
+package com.commerce.ecommerce.dto;
+
+import com.commerce.ecommerce.model.Product;
+
+public class ProductChangeDTO {
+    private long sequence;
+    private String type; // CREATED, UPDATED, DELETED
+    private Long productId;
+    private Product product; // null for DELETED
+
+    // Constructors
+    public ProductChangeDTO() {}
+
+    public ProductChangeDTO(long sequence, String type, Long productId, Product product) {
+        this.sequence = sequence;
+        this.type = type;
+        this.productId = productId;
+        this.product = product;
+    }
+
+    // Getters and Setters
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public void setProduct(Product product) {
+        this.product = product;
+    }
+}
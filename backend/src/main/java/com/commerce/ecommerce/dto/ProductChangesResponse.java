@@ -0,0 +1,43 @@
+package com.commerce.ecommerce.dto;
+
+import java.util.List;
+
+public class ProductChangesResponse {
+    private List<ProductChangeDTO> changes;
+    private long latestSequence; // pass back as ?since= on the next poll
+    private boolean hasMore;
+
+    // Constructors
+    public ProductChangesResponse() {}
+
+    public ProductChangesResponse(List<ProductChangeDTO> changes, long latestSequence, boolean hasMore) {
+        this.changes = changes;
+        this.latestSequence = latestSequence;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<ProductChangeDTO> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<ProductChangeDTO> changes) {
+        this.changes = changes;
+    }
+
+    public long getLatestSequence() {
+        return latestSequence;
+    }
+
+    public void setLatestSequence(long latestSequence) {
+        this.latestSequence = latestSequence;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -1,5 +1,11 @@
 package com.commerce.ecommerce.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+// Listing view of a product; fields a projection did not select are left out of the JSON
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ProductDTO {
     private Long id;
     private String name;
@@ -15,6 +21,7 @@ public class ProductDTO {
     private double rating;
     private int reviews;
     private String sellerName;
+    private LocalDateTime createdAt;
 
     // Constructors
     public ProductDTO() {}
@@ -28,6 +35,24 @@ public class ProductDTO {
         this.stock = stock;
     }
 
+    // Listing projection, selected directly by ProductRepository.LISTING
+    public ProductDTO(Long id, String name, double price, String description, String imageUrl, int stock,
+                      Long sellerId, String category, String status, double rating, int reviews,
+                      LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.description = description;
+        this.imageUrl = imageUrl;
+        this.stock = stock;
+        this.sellerId = sellerId;
+        this.category = category;
+        this.status = status;
+        this.rating = rating;
+        this.reviews = reviews;
+        this.createdAt = createdAt;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -140,4 +165,12 @@ public class ProductDTO {
     public void setSellerName(String sellerName) {
         this.sellerName = sellerName;
     }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
 }
@@ -0,0 +1,42 @@
+package com.commerce.ecommerce.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a product's review listing. Carries the rating as well as
+ * (createdAt, id) so the star-ordered sorts can resume from it too.
+ */
+public class ReviewCursor extends KeysetCursor {
+    private final int rating;
+
+    public ReviewCursor(int rating, LocalDateTime createdAt, Long id) {
+        super(createdAt, id);
+        this.rating = rating;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    @Override
+    public String encode() {
+        String raw = rating + "|" + getCreatedAt() + "|" + getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Throws IllegalArgumentException for tokens that were not produced by encode()
+    public static ReviewCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ReviewCursor(Integer.parseInt(parts[0]), LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.commerce.ecommerce.dto;
+
+import com.commerce.ecommerce.model.Review;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// One page of a product's reviews with the product's rating summary
+public class ReviewPage extends CursorPage<Review> {
+    private double rating;
+    private int reviews;
+    private Map<Integer, Integer> starCounts; // 1..5 stars -> number of reviews
+
+    // Constructors
+    public ReviewPage() {}
+
+    public ReviewPage(CursorPage<Review> page, double rating, int reviews, int[] starCounts) {
+        super(page.getItems(), page.getNextCursor());
+        this.rating = rating;
+        this.reviews = reviews;
+        this.starCounts = new LinkedHashMap<>();
+        for (int stars = 5; stars >= 1; stars--) {
+            this.starCounts.put(stars, starCounts[stars]);
+        }
+    }
+
+    // Getters and Setters
+    public double getRating() {
+        return rating;
+    }
+
+    public void setRating(double rating) {
+        this.rating = rating;
+    }
+
+    public int getReviews() {
+        return reviews;
+    }
+
+    public void setReviews(int reviews) {
+        this.reviews = reviews;
+    }
+
+    public Map<Integer, Integer> getStarCounts() {
+        return starCounts;
+    }
+
+    public void setStarCounts(Map<Integer, Integer> starCounts) {
+        this.starCounts = starCounts;
+    }
+}
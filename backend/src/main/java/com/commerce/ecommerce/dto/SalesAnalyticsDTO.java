@@ -0,0 +1,121 @@
+package com.commerce.ecommerce.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public class SalesAnalyticsDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private double gmv;
+    private long orderCount;
+    private long itemCount;
+    private long units;
+    private double averageOrderValue;
+    private Map<LocalDate, Double> gmvByDay;
+    private Map<String, Double> gmvByCategory;
+    private List<SellerSalesDTO> topSellers;
+    private int sellerCount;
+    private LocalDateTime computedAt;
+
+    // Constructors
+    public SalesAnalyticsDTO() {}
+
+    // Getters and Setters
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public double getGmv() {
+        return gmv;
+    }
+
+    public void setGmv(double gmv) {
+        this.gmv = gmv;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(long itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public void setUnits(long units) {
+        this.units = units;
+    }
+
+    public double getAverageOrderValue() {
+        return averageOrderValue;
+    }
+
+    public void setAverageOrderValue(double averageOrderValue) {
+        this.averageOrderValue = averageOrderValue;
+    }
+
+    public Map<LocalDate, Double> getGmvByDay() {
+        return gmvByDay;
+    }
+
+    public void setGmvByDay(Map<LocalDate, Double> gmvByDay) {
+        this.gmvByDay = gmvByDay;
+    }
+
+    public Map<String, Double> getGmvByCategory() {
+        return gmvByCategory;
+    }
+
+    public void setGmvByCategory(Map<String, Double> gmvByCategory) {
+        this.gmvByCategory = gmvByCategory;
+    }
+
+    public List<SellerSalesDTO> getTopSellers() {
+        return topSellers;
+    }
+
+    public void setTopSellers(List<SellerSalesDTO> topSellers) {
+        this.topSellers = topSellers;
+    }
+
+    public int getSellerCount() {
+        return sellerCount;
+    }
+
+    public void setSellerCount(int sellerCount) {
+        this.sellerCount = sellerCount;
+    }
+
+    public LocalDateTime getComputedAt() {
+        return computedAt;
+    }
+
+    public void setComputedAt(LocalDateTime computedAt) {
+        this.computedAt = computedAt;
+    }
+}
@@ -0,0 +1,75 @@
+package com.commerce.ecommerce.dto;
+
+import java.time.LocalDateTime;
+
+// One sold order item with the order and product columns analytics needs
+public class SalesItemDTO {
+    private Long itemId;
+    private Long sellerId;
+    private LocalDateTime createdAt;
+    private String category;
+    private int quantity;
+    private double price;
+
+    // Constructors
+    public SalesItemDTO() {}
+
+    // Selected directly by OrderItemRepository.findSalesItems
+    public SalesItemDTO(Long itemId, Long sellerId, LocalDateTime createdAt, String category, int quantity, double price) {
+        this.itemId = itemId;
+        this.sellerId = sellerId;
+        this.createdAt = createdAt;
+        this.category = category;
+        this.quantity = quantity;
+        this.price = price;
+    }
+
+    // Getters and Setters
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public void setSellerId(Long sellerId) {
+        this.sellerId = sellerId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+}
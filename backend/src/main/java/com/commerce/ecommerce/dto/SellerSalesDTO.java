@@ -0,0 +1,31 @@
+package com.commerce.ecommerce.dto;
+
+public class SellerSalesDTO {
+    private Long sellerId;
+    private double gmv;
+
+    // Constructors
+    public SellerSalesDTO() {}
+
+    public SellerSalesDTO(Long sellerId, double gmv) {
+        this.sellerId = sellerId;
+        this.gmv = gmv;
+    }
+
+    // Getters and Setters
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public void setSellerId(Long sellerId) {
+        this.sellerId = sellerId;
+    }
+
+    public double getGmv() {
+        return gmv;
+    }
+
+    public void setGmv(double gmv) {
+        this.gmv = gmv;
+    }
+}
@@ -0,0 +1,66 @@
+package com.commerce.ecommerce.dto;
+
+import com.commerce.ecommerce.model.SellerDailyStats;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class SellerStatsDTO {
+    private Long sellerId;
+    private LocalDate from;
+    private LocalDate to;
+    private SellerStatsTotalsDTO totals;
+    private List<SellerDailyStats> days; // only days with orders
+
+    // Constructors
+    public SellerStatsDTO() {}
+
+    public SellerStatsDTO(Long sellerId, LocalDate from, LocalDate to, SellerStatsTotalsDTO totals, List<SellerDailyStats> days) {
+        this.sellerId = sellerId;
+        this.from = from;
+        this.to = to;
+        this.totals = totals;
+        this.days = days;
+    }
+
+    // Getters and Setters
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public void setSellerId(Long sellerId) {
+        this.sellerId = sellerId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public SellerStatsTotalsDTO getTotals() {
+        return totals;
+    }
+
+    public void setTotals(SellerStatsTotalsDTO totals) {
+        this.totals = totals;
+    }
+
+    public List<SellerDailyStats> getDays() {
+        return days;
+    }
+
+    public void setDays(List<SellerDailyStats> days) {
+        this.days = days;
+    }
+}
@@ -0,0 +1,95 @@
+package com.commerce.ecommerce.dto;
+
+import com.commerce.ecommerce.model.SellerDailyStats;
+
+// Counters of a seller's daily rollups summed over the requested range
+public class SellerStatsTotalsDTO {
+    private long orderCount;
+    private double revenue;
+    private long units;
+    private long pendingCount;
+    private long confirmedCount;
+    private long shippedCount;
+    private long deliveredCount;
+    private long cancelledCount;
+
+    // Constructors
+    public SellerStatsTotalsDTO() {}
+
+    // Add one day's counters to the totals
+    public void add(SellerDailyStats day) {
+        orderCount += day.getOrderCount();
+        revenue += day.getRevenue();
+        units += day.getUnits();
+        pendingCount += day.getPendingCount();
+        confirmedCount += day.getConfirmedCount();
+        shippedCount += day.getShippedCount();
+        deliveredCount += day.getDeliveredCount();
+        cancelledCount += day.getCancelledCount();
+    }
+
+    // Getters and Setters
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public void setUnits(long units) {
+        this.units = units;
+    }
+
+    public long getPendingCount() {
+        return pendingCount;
+    }
+
+    public void setPendingCount(long pendingCount) {
+        this.pendingCount = pendingCount;
+    }
+
+    public long getConfirmedCount() {
+        return confirmedCount;
+    }
+
+    public void setConfirmedCount(long confirmedCount) {
+        this.confirmedCount = confirmedCount;
+    }
+
+    public long getShippedCount() {
+        return shippedCount;
+    }
+
+    public void setShippedCount(long shippedCount) {
+        this.shippedCount = shippedCount;
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount;
+    }
+
+    public void setDeliveredCount(long deliveredCount) {
+        this.deliveredCount = deliveredCount;
+    }
+
+    public long getCancelledCount() {
+        return cancelledCount;
+    }
+
+    public void setCancelledCount(long cancelledCount) {
+        this.cancelledCount = cancelledCount;
+    }
+}
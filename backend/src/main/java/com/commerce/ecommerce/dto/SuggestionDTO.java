@@ -0,0 +1,41 @@
+package com.commerce.ecommerce.dto;
+
+public class SuggestionDTO {
+    private String text;
+    private String type; // name, category
+    private int products;
+
+    // Constructors
+    public SuggestionDTO() {}
+
+    public SuggestionDTO(String text, String type, int products) {
+        this.text = text;
+        this.type = type;
+        this.products = products;
+    }
+
+    // Getters and Setters
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public int getProducts() {
+        return products;
+    }
+
+    public void setProducts(int products) {
+        this.products = products;
+    }
+}
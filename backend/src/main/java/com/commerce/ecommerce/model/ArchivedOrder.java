@@ -0,0 +1,108 @@
+package com.commerce.ecommerce.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A delivered or cancelled order moved out of the orders table by OrderArchiveService. It keeps its original id.
+@Entity
+@Table(name = "orders_archive", indexes = {
+    @Index(name = "idx_orders_archive_created", columnList = "createdAt, id"),
+    @Index(name = "idx_orders_archive_buyer_created", columnList = "buyerId, createdAt, id"),
+    @Index(name = "idx_orders_archive_seller_created", columnList = "sellerId, createdAt, id")
+})
+public class ArchivedOrder {
+
+    @Id
+    private Long id;
+
+    private Long buyerId;
+    private Long sellerId;
+    private double totalPrice;
+    private String status;
+    private String shippingAddress;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private LocalDateTime createdAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private LocalDateTime updatedAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private LocalDateTime archivedAt;
+
+    // Constructors
+    public ArchivedOrder() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getBuyerId() {
+        return buyerId;
+    }
+
+    public void setBuyerId(Long buyerId) {
+        this.buyerId = buyerId;
+    }
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public void setSellerId(Long sellerId) {
+        this.sellerId = sellerId;
+    }
+
+    public double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(double totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getShippingAddress() {
+        return shippingAddress;
+    }
+
+    public void setShippingAddress(String shippingAddress) {
+        this.shippingAddress = shippingAddress;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
@@ -0,0 +1,63 @@
+package com.commerce.ecommerce.model;
+
+import jakarta.persistence.*;
+
+// An item of an ArchivedOrder, keeping its original id
+@Entity
+@Table(name = "order_items_archive", indexes = {
+    @Index(name = "idx_order_items_archive_order", columnList = "orderId")
+})
+public class ArchivedOrderItem {
+
+    @Id
+    private Long id;
+
+    private Long orderId;
+    private Long productId;
+    private int quantity;
+    private double price;
+
+    // Constructors
+    public ArchivedOrderItem() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+}
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "chats")
+@Table(name = "chats", indexes = {
+    @Index(name = "idx_chats_conversation_created", columnList = "conversationKey, createdAt, id")
+})
 public class Chat {
 
     @Id
@@ -15,6 +17,7 @@ public class Chat {
     private Long receiverId;
     private String message;
     private boolean isRead = false;
+    private String conversationKey; // same for both directions, see conversationKey(Long, Long)
     
     @Temporal(TemporalType.TIMESTAMP)
     private LocalDateTime createdAt;
@@ -28,9 +31,15 @@ public class Chat {
         this.senderId = senderId;
         this.receiverId = receiverId;
         this.message = message;
+        this.conversationKey = conversationKey(senderId, receiverId);
         this.createdAt = LocalDateTime.now();
     }
 
+    // "smallerId_largerId", so A->B and B->A messages share one key
+    public static String conversationKey(Long userId1, Long userId2) {
+        return Math.min(userId1, userId2) + "_" + Math.max(userId1, userId2);
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -72,6 +81,14 @@ public class Chat {
         isRead = read;
     }
 
+    public String getConversationKey() {
+        return conversationKey;
+    }
+
+    public void setConversationKey(String conversationKey) {
+        this.conversationKey = conversationKey;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
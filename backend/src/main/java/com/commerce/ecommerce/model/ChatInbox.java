@@ -0,0 +1,116 @@
+package com.commerce.ecommerce.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One user's sidebar entry for one conversation: its latest message and how many messages
+// the user has not read yet. Maintained by ChatInboxService alongside the chats table.
+@Entity
+@Table(name = "chat_inbox", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_chat_inbox_user_conversation", columnNames = {"userId", "conversationKey"})
+}, indexes = {
+    @Index(name = "idx_chat_inbox_user_recent", columnList = "userId, lastMessageAt, id"),
+    @Index(name = "idx_chat_inbox_conversation", columnList = "conversationKey")
+})
+public class ChatInbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long userId;
+    private Long otherUserId;
+    private String conversationKey;
+    private Long lastMessageId;
+    private Long lastSenderId;
+    private String lastMessage; // preview, cut to ChatInboxService.PREVIEW_LENGTH
+    private LocalDateTime lastMessageAt;
+    private long unreadCount;
+
+    // Constructors
+    public ChatInbox() {}
+
+    public ChatInbox(Long userId, Long otherUserId, Chat last, String preview, long unreadCount) {
+        this.userId = userId;
+        this.otherUserId = otherUserId;
+        this.conversationKey = Chat.conversationKey(userId, otherUserId);
+        this.lastMessageId = last.getId();
+        this.lastSenderId = last.getSenderId();
+        this.lastMessage = preview;
+        this.lastMessageAt = last.getCreatedAt();
+        this.unreadCount = unreadCount;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getOtherUserId() {
+        return otherUserId;
+    }
+
+    public void setOtherUserId(Long otherUserId) {
+        this.otherUserId = otherUserId;
+    }
+
+    public String getConversationKey() {
+        return conversationKey;
+    }
+
+    public void setConversationKey(String conversationKey) {
+        this.conversationKey = conversationKey;
+    }
+
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public void setLastMessageId(Long lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+
+    public Long getLastSenderId() {
+        return lastSenderId;
+    }
+
+    public void setLastSenderId(Long lastSenderId) {
+        this.lastSenderId = lastSenderId;
+    }
+
+    public String getLastMessage() {
+        return lastMessage;
+    }
+
+    public void setLastMessage(String lastMessage) {
+        this.lastMessage = lastMessage;
+    }
+
+    public LocalDateTime getLastMessageAt() {
+        return lastMessageAt;
+    }
+
+    public void setLastMessageAt(LocalDateTime lastMessageAt) {
+        this.lastMessageAt = lastMessageAt;
+    }
+
+    public long getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(long unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+}
@@ -0,0 +1,86 @@
+package com.commerce.ecommerce.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Stock granted in memory during a flash sale; PENDING rows have not yet been taken off Product.stock
+@Entity
+@Table(name = "flash_sale_reservations", indexes = {
+    @Index(name = "idx_flash_reservation_status", columnList = "status, id")
+})
+public class FlashSaleReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long productId;
+    private Long orderId;
+    private int quantity;
+    private String status; // PENDING, APPLIED
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public FlashSaleReservation() {
+        this.createdAt = LocalDateTime.now();
+        this.status = "PENDING";
+    }
+
+    public FlashSaleReservation(Long productId, Long orderId, int quantity) {
+        this();
+        this.productId = productId;
+        this.orderId = orderId;
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,103 @@
+package com.commerce.ecommerce.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Idempotency-Key of a completed order creation, the request it was used with and the order it produced
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "idx_idempotency_expires", columnList = "expiresAt")
+})
+public class IdempotencyKey implements Persistable<String> {
+
+    @Id
+    @Column(length = 255)
+    private String idempotencyKey;
+
+    private Long orderId;
+
+    // SHA-256 of the request that recorded the key; null on keys recorded before it was kept
+    @Column(length = 64)
+    private String requestHash;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private LocalDateTime createdAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private LocalDateTime expiresAt;
+
+    // Assigned ids make Spring Data merge by default; always insert new keys so a
+    // duplicate from another node fails on the primary key instead of overwriting it
+    @Transient
+    private boolean isNew = true;
+
+    // Constructors
+    public IdempotencyKey() {}
+
+    public IdempotencyKey(String idempotencyKey, Long orderId, String requestHash, LocalDateTime expiresAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.orderId = orderId;
+        this.requestHash = requestHash;
+        this.createdAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // Getters and Setters
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
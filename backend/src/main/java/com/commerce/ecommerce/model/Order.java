@@ -5,7 +5,14 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_created", columnList = "createdAt, id"),
+    @Index(name = "idx_orders_updated", columnList = "updatedAt"),
+    @Index(name = "idx_orders_buyer_updated", columnList = "buyerId, updatedAt"),
+    @Index(name = "idx_orders_seller_updated", columnList = "sellerId, updatedAt"),
+    @Index(name = "idx_orders_buyer_created", columnList = "buyerId, createdAt, id"),
+    @Index(name = "idx_orders_seller_created", columnList = "sellerId, createdAt, id")
+})
 public class Order {
 
     @Id
@@ -0,0 +1,155 @@
+package com.commerce.ecommerce.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import java.time.LocalDateTime;
+
+// Order lifecycle event written in the same transaction as the change; processedAt is null until dispatched
+@Entity
+@Table(name = "order_outbox", indexes = {
+    @Index(name = "idx_order_outbox_pending", columnList = "processedAt, id")
+})
+public class OrderOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long orderId;
+    private String eventType; // CREATED, STATUS_CHANGED
+    private String fromStatus;
+    private String toStatus;
+
+    // The order's amounts when the event was written, so listeners that run later don't see
+    // later changes; null on events written before they were recorded
+    private Double orderTotal;
+    private Long orderUnits;
+
+    private int attempts;
+
+    // Already reflected in the seller rollups by their backfill, so SellerRollupListener skips it
+    @ColumnDefault("false")
+    private boolean rollupCounted;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private LocalDateTime createdAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private LocalDateTime processedAt;
+
+    // Constructors
+    public OrderOutboxEvent() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public OrderOutboxEvent(Long orderId, String eventType, OrderStatus fromStatus, OrderStatus toStatus,
+                            double orderTotal, long orderUnits) {
+        this();
+        this.orderId = orderId;
+        this.eventType = eventType;
+        this.fromStatus = fromStatus != null ? fromStatus.name() : null;
+        this.toStatus = toStatus.name();
+        this.orderTotal = orderTotal;
+        this.orderUnits = orderUnits;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getFromStatus() {
+        return fromStatus;
+    }
+
+    public void setFromStatus(String fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+
+    public String getToStatus() {
+        return toStatus;
+    }
+
+    public void setToStatus(String toStatus) {
+        this.toStatus = toStatus;
+    }
+
+    public Double getOrderTotal() {
+        return orderTotal;
+    }
+
+    public void setOrderTotal(Double orderTotal) {
+        this.orderTotal = orderTotal;
+    }
+
+    public Long getOrderUnits() {
+        return orderUnits;
+    }
+
+    public void setOrderUnits(Long orderUnits) {
+        this.orderUnits = orderUnits;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public boolean isRollupCounted() {
+        return rollupCounted;
+    }
+
+    public void setRollupCounted(boolean rollupCounted) {
+        this.rollupCounted = rollupCounted;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+}
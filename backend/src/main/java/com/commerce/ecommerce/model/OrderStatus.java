@@ -0,0 +1,39 @@
+package com.commerce.ecommerce.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Order lifecycle. Orders can be cancelled until they ship; DELIVERED and CANCELLED are final.
+public enum OrderStatus {
+    PENDING,
+    CONFIRMED,
+    SHIPPED,
+    DELIVERED,
+    CANCELLED;
+
+    public Set<OrderStatus> nextStatuses() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(CONFIRMED, CANCELLED);
+            case CONFIRMED -> EnumSet.of(SHIPPED, CANCELLED);
+            case SHIPPED -> EnumSet.of(DELIVERED);
+            case DELIVERED, CANCELLED -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return nextStatuses().contains(next);
+    }
+
+    public boolean isTerminal() {
+        return nextStatuses().isEmpty();
+    }
+
+    // Parse a stored or requested status, ignoring case
+    public static OrderStatus parse(String status) {
+        try {
+            return valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unknown order status: " + status);
+        }
+    }
+}
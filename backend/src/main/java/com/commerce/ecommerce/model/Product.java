@@ -1,9 +1,22 @@
 package com.commerce.ecommerce.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
+// Dynamic updates: saving an edited product writes only the edited columns, so it cannot
+// overwrite stock or rating counters that were incremented in the database meanwhile
+@DynamicUpdate
 @Entity
+@Table(name = "product", indexes = {
+    @Index(name = "idx_product_seller_updated", columnList = "sellerId, updatedAt"),
+    @Index(name = "idx_product_status_stock", columnList = "status, stock"),
+    @Index(name = "idx_product_category_status", columnList = "category, status"),
+    @Index(name = "idx_product_created", columnList = "createdAt, id"),
+    @Index(name = "idx_product_status_created", columnList = "status, createdAt, id"),
+    @Index(name = "idx_product_updated", columnList = "updatedAt")
+})
 public class Product {
 
     @Id
@@ -27,6 +40,20 @@ public class Product {
     
     private double rating = 0;
     private int reviews = 0;
+
+    // Star total and 1-5 star histogram behind rating and reviews, kept by atomic increments
+    @ColumnDefault("0")
+    private long ratingSum;
+    @ColumnDefault("0")
+    private int oneStar;
+    @ColumnDefault("0")
+    private int twoStars;
+    @ColumnDefault("0")
+    private int threeStars;
+    @ColumnDefault("0")
+    private int fourStars;
+    @ColumnDefault("0")
+    private int fiveStars;
     
     @Temporal(TemporalType.TIMESTAMP)
     private LocalDateTime createdAt;
@@ -166,6 +193,54 @@ public class Product {
         this.reviews = reviews;
     }
 
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(long ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
+    public int getOneStar() {
+        return oneStar;
+    }
+
+    public void setOneStar(int oneStar) {
+        this.oneStar = oneStar;
+    }
+
+    public int getTwoStars() {
+        return twoStars;
+    }
+
+    public void setTwoStars(int twoStars) {
+        this.twoStars = twoStars;
+    }
+
+    public int getThreeStars() {
+        return threeStars;
+    }
+
+    public void setThreeStars(int threeStars) {
+        this.threeStars = threeStars;
+    }
+
+    public int getFourStars() {
+        return fourStars;
+    }
+
+    public void setFourStars(int fourStars) {
+        this.fourStars = fourStars;
+    }
+
+    public int getFiveStars() {
+        return fiveStars;
+    }
+
+    public void setFiveStars(int fiveStars) {
+        this.fiveStars = fiveStars;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,64 @@
+package com.commerce.ecommerce.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Append-only log of catalog writes; the id is the change feed sequence and DELETED rows are tombstones
+@Entity
+@Table(name = "product_changes")
+public class ProductChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long productId;
+    private String changeType; // CREATED, UPDATED, DELETED
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private LocalDateTime changedAt;
+
+    // Constructors
+    public ProductChange() {
+        this.changedAt = LocalDateTime.now();
+    }
+
+    public ProductChange(Long productId, String changeType) {
+        this.productId = productId;
+        this.changeType = changeType;
+        this.changedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(String changeType) {
+        this.changeType = changeType;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
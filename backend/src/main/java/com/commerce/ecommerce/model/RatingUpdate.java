@@ -0,0 +1,88 @@
+package com.commerce.ecommerce.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One review's stars to add to (sign 1) or take out of (sign -1) the product and seller ratings, written
+// in the review's transaction and deleted once applied. The seller is recorded with the review so its
+// share is applied even if the product is deleted or recounted first.
+@Entity
+@Table(name = "rating_updates", indexes = {
+    @Index(name = "idx_rating_updates_product", columnList = "productId, id")
+})
+public class RatingUpdate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long productId;
+    private Long sellerId;
+    private int stars;
+    private int sign;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public RatingUpdate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public RatingUpdate(Long productId, Long sellerId, int stars, int sign) {
+        this();
+        this.productId = productId;
+        this.sellerId = sellerId;
+        this.stars = stars;
+        this.sign = sign;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public void setSellerId(Long sellerId) {
+        this.sellerId = sellerId;
+    }
+
+    public int getStars() {
+        return stars;
+    }
+
+    public void setStars(int stars) {
+        this.stars = stars;
+    }
+
+    public int getSign() {
+        return sign;
+    }
+
+    public void setSign(int sign) {
+        this.sign = sign;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+    @Index(name = "idx_reviews_product_created", columnList = "productId, createdAt, id"),
+    @Index(name = "idx_reviews_product_rating", columnList = "productId, rating, createdAt, id")
+})
 public class Review {
 
     @Id
@@ -0,0 +1,152 @@
+package com.commerce.ecommerce.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// Per seller, per day rollup of orders placed that day. Revenue and units leave out cancelled orders.
+// The unique key keeps it to one row per day, so a second insert for the day fails instead of forking the counts.
+@Entity
+@Table(name = "seller_daily_stats", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_seller_daily_stats_day", columnNames = {"sellerId", "statsDate"})
+})
+public class SellerDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long sellerId;
+    private LocalDate statsDate;
+    private long orderCount;
+    private double revenue;
+    private long units;
+    private long pendingCount;
+    private long confirmedCount;
+    private long shippedCount;
+    private long deliveredCount;
+    private long cancelledCount;
+
+    // Constructors
+    public SellerDailyStats() {}
+
+    public SellerDailyStats(Long sellerId, LocalDate statsDate) {
+        this.sellerId = sellerId;
+        this.statsDate = statsDate;
+    }
+
+    // Move delta orders into or out of a status column; unknown statuses are not counted
+    public void addStatus(String status, long delta) {
+        if (status == null) {
+            return;
+        }
+        switch (status) {
+            case "PENDING" -> pendingCount += delta;
+            case "CONFIRMED" -> confirmedCount += delta;
+            case "SHIPPED" -> shippedCount += delta;
+            case "DELIVERED" -> deliveredCount += delta;
+            case "CANCELLED" -> cancelledCount += delta;
+            default -> { }
+        }
+    }
+
+    // Add another day's (or delta's) counters to this one
+    public void add(SellerDailyStats other) {
+        orderCount += other.orderCount;
+        revenue += other.revenue;
+        units += other.units;
+        pendingCount += other.pendingCount;
+        confirmedCount += other.confirmedCount;
+        shippedCount += other.shippedCount;
+        deliveredCount += other.deliveredCount;
+        cancelledCount += other.cancelledCount;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSellerId() {
+        return sellerId;
+    }
+
+    public void setSellerId(Long sellerId) {
+        this.sellerId = sellerId;
+    }
+
+    public LocalDate getStatsDate() {
+        return statsDate;
+    }
+
+    public void setStatsDate(LocalDate statsDate) {
+        this.statsDate = statsDate;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public void setUnits(long units) {
+        this.units = units;
+    }
+
+    public long getPendingCount() {
+        return pendingCount;
+    }
+
+    public void setPendingCount(long pendingCount) {
+        this.pendingCount = pendingCount;
+    }
+
+    public long getConfirmedCount() {
+        return confirmedCount;
+    }
+
+    public void setConfirmedCount(long confirmedCount) {
+        this.confirmedCount = confirmedCount;
+    }
+
+    public long getShippedCount() {
+        return shippedCount;
+    }
+
+    public void setShippedCount(long shippedCount) {
+        this.shippedCount = shippedCount;
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount;
+    }
+
+    public void setDeliveredCount(long deliveredCount) {
+        this.deliveredCount = deliveredCount;
+    }
+
+    public long getCancelledCount() {
+        return cancelledCount;
+    }
+
+    public void setCancelledCount(long cancelledCount) {
+        this.cancelledCount = cancelledCount;
+    }
+}
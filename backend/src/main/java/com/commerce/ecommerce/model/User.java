@@ -1,8 +1,13 @@
 package com.commerce.ecommerce.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
+// Dynamic updates: profile and wallet saves write only what they changed, so they cannot
+// overwrite rating totals incremented in the database meanwhile
+@DynamicUpdate
 @Entity
 @Table(name = "users")
 public class User {
@@ -29,6 +34,8 @@ public class User {
     private boolean banned = false;
     private double ratings = 0;
     private int totalReviews = 0;
+    @ColumnDefault("0")
+    private long ratingSum; // star total behind ratings, kept by atomic increments
     private double walletBalance = 0;
     
     @Temporal(TemporalType.TIMESTAMP)
@@ -159,6 +166,14 @@ public class User {
         this.totalReviews = totalReviews;
     }
 
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(long ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
     public double getWalletBalance() {
         return walletBalance;
     }
@@ -0,0 +1,50 @@
+package com.commerce.ecommerce.repository;
+
+import com.commerce.ecommerce.dto.OrderItemDTO;
+import com.commerce.ecommerce.dto.SalesItemDTO;
+import com.commerce.ecommerce.model.ArchivedOrderItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedOrderItemRepository extends JpaRepository<ArchivedOrderItem, Long> {
+    // Copy the items of orders being archived
+    @Modifying
+    @Query("INSERT INTO ArchivedOrderItem (id, orderId, productId, quantity, price) " +
+           "SELECT i.id, i.order.id, i.productId, i.quantity, i.price FROM OrderItem i WHERE i.order.id IN :orderIds")
+    int copyFromOrderItems(@Param("orderIds") Collection<Long> orderIds);
+
+    List<ArchivedOrderItem> findByOrderIdOrderById(Long orderId);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedOrderItem i WHERE i.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+
+    // Items of a whole page of archived orders in one statement
+    @Query("SELECT new com.commerce.ecommerce.dto.OrderItemDTO(i.orderId, i.id, i.productId, i.quantity, i.price) " +
+           "FROM ArchivedOrderItem i WHERE i.orderId IN :orderIds ORDER BY i.id")
+    List<OrderItemDTO> findItemsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    // Same as OrderItemRepository.findSalesItems, over the archive
+    @Query("SELECT new com.commerce.ecommerce.dto.SalesItemDTO(i.id, o.sellerId, o.createdAt, p.category, i.quantity, i.price) " +
+           "FROM ArchivedOrderItem i JOIN ArchivedOrder o ON o.id = i.orderId LEFT JOIN Product p ON p.id = i.productId " +
+           "WHERE o.id BETWEEN :minOrderId AND :maxOrderId AND o.createdAt >= :from AND o.createdAt < :to " +
+           "AND o.status <> 'CANCELLED' AND i.id > :afterItemId ORDER BY i.id")
+    List<SalesItemDTO> findSalesItems(@Param("minOrderId") Long minOrderId, @Param("maxOrderId") Long maxOrderId,
+                                      @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                      @Param("afterItemId") Long afterItemId, Pageable pageable);
+
+    @Query("SELECT COUNT(DISTINCT o.id) FROM ArchivedOrderItem i JOIN ArchivedOrder o ON o.id = i.orderId " +
+           "WHERE o.id BETWEEN :minOrderId AND :maxOrderId AND o.createdAt >= :from AND o.createdAt < :to " +
+           "AND o.status <> 'CANCELLED'")
+    long countSoldOrders(@Param("minOrderId") Long minOrderId, @Param("maxOrderId") Long maxOrderId,
+                         @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,56 @@
+package com.commerce.ecommerce.repository;
+
+import com.commerce.ecommerce.model.ArchivedOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+    // Copy orders out of the hot table; the caller deletes them there in the same transaction
+    @Modifying
+    @Query("INSERT INTO ArchivedOrder (id, buyerId, sellerId, totalPrice, status, shippingAddress, createdAt, updatedAt, archivedAt) " +
+           "SELECT o.id, o.buyerId, o.sellerId, o.totalPrice, o.status, o.shippingAddress, o.createdAt, o.updatedAt, :now " +
+           "FROM Order o WHERE o.id IN :ids")
+    int copyFromOrders(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Creation time of the newest archived order; hot orders created after it always sort first
+    @Query("SELECT MAX(o.createdAt) FROM ArchivedOrder o")
+    LocalDateTime findNewestCreatedAt();
+
+    List<ArchivedOrder> findByBuyerIdOrderByCreatedAtDescIdDesc(Long buyerId);
+    List<ArchivedOrder> findBySellerIdOrderByCreatedAtDescIdDesc(Long sellerId);
+
+    // Keyset pagination of one buyer's or seller's archived history, newest first
+    @Query("SELECT o FROM ArchivedOrder o WHERE o.buyerId = :buyerId ORDER BY o.createdAt DESC, o.id DESC")
+    List<ArchivedOrder> findBuyerFirstPage(@Param("buyerId") Long buyerId, Pageable pageable);
+
+    @Query("SELECT o FROM ArchivedOrder o WHERE o.buyerId = :buyerId AND " +
+           "(o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<ArchivedOrder> findBuyerPageAfter(@Param("buyerId") Long buyerId, @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT o FROM ArchivedOrder o WHERE o.sellerId = :sellerId ORDER BY o.createdAt DESC, o.id DESC")
+    List<ArchivedOrder> findSellerFirstPage(@Param("sellerId") Long sellerId, Pageable pageable);
+
+    @Query("SELECT o FROM ArchivedOrder o WHERE o.sellerId = :sellerId AND " +
+           "(o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<ArchivedOrder> findSellerPageAfter(@Param("sellerId") Long sellerId, @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id, Pageable pageable);
+
+    // Archived ids keep creation order too, so a creation-time range maps to an id range
+    @Query("SELECT MIN(o.id) FROM ArchivedOrder o WHERE o.createdAt >= :from AND o.createdAt < :to")
+    Long findMinIdCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT MAX(o.id) FROM ArchivedOrder o WHERE o.createdAt >= :from AND o.createdAt < :to")
+    Long findMaxIdCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
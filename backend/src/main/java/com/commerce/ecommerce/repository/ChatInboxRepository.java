@@ -0,0 +1,45 @@
+package com.commerce.ecommerce.repository;
+
+import com.commerce.ecommerce.model.ChatInbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ChatInboxRepository extends JpaRepository<ChatInbox, Long> {
+    // Keyset pagination of a user's conversations, most recent first
+    @Query("SELECT i FROM ChatInbox i WHERE i.userId = :userId ORDER BY i.lastMessageAt DESC, i.id DESC")
+    List<ChatInbox> findLatestPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT i FROM ChatInbox i WHERE i.userId = :userId AND " +
+           "(i.lastMessageAt < :lastMessageAt OR (i.lastMessageAt = :lastMessageAt AND i.id < :id)) " +
+           "ORDER BY i.lastMessageAt DESC, i.id DESC")
+    List<ChatInbox> findPageBefore(@Param("userId") Long userId, @Param("lastMessageAt") LocalDateTime lastMessageAt,
+                                   @Param("id") Long id, Pageable pageable);
+
+    // Record a message on the user's row in one statement, returning 0 if the row does not exist yet.
+    // The last message only moves forward; lastMessageId is assigned last because MySQL evaluates
+    // assignments left to right and the other CASEs must still compare against the old value.
+    @Modifying
+    @Query("UPDATE ChatInbox i SET i.unreadCount = i.unreadCount + :unread, " +
+           "i.lastSenderId = CASE WHEN i.lastMessageId < :messageId THEN :senderId ELSE i.lastSenderId END, " +
+           "i.lastMessage = CASE WHEN i.lastMessageId < :messageId THEN :preview ELSE i.lastMessage END, " +
+           "i.lastMessageAt = CASE WHEN i.lastMessageId < :messageId THEN :sentAt ELSE i.lastMessageAt END, " +
+           "i.lastMessageId = CASE WHEN i.lastMessageId < :messageId THEN :messageId ELSE i.lastMessageId END " +
+           "WHERE i.userId = :userId AND i.conversationKey = :key")
+    int applyMessage(@Param("userId") Long userId, @Param("key") String conversationKey,
+                     @Param("messageId") Long messageId, @Param("senderId") Long senderId,
+                     @Param("preview") String preview, @Param("sentAt") LocalDateTime sentAt,
+                     @Param("unread") long unread);
+
+    @Modifying
+    @Query("UPDATE ChatInbox i SET i.unreadCount = i.unreadCount - 1 " +
+           "WHERE i.userId = :userId AND i.conversationKey = :key AND i.unreadCount > 0")
+    int decrementUnread(@Param("userId") Long userId, @Param("key") String conversationKey);
+}
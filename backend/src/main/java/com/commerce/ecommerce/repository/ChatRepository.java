@@ -1,9 +1,16 @@
 package com.commerce.ecommerce.repository;
 
 import com.commerce.ecommerce.model.Chat;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,4 +18,41 @@ public interface ChatRepository extends JpaRepository<Chat, Long> {
     List<Chat> findBySenderIdOrReceiverId(Long senderId, Long receiverId);
     List<Chat> findBySenderIdAndReceiverId(Long senderId, Long receiverId);
     List<Chat> findByReceiverIdAndIsRead(Long receiverId, boolean isRead);
+
+    // Whole conversation, oldest first, in one indexed query
+    List<Chat> findByConversationKeyOrderByCreatedAtAscIdAsc(String conversationKey);
+
+    // Keyset pagination of a conversation, newest first
+    @Query("SELECT c FROM Chat c WHERE c.conversationKey = :key ORDER BY c.createdAt DESC, c.id DESC")
+    List<Chat> findConversationLatest(@Param("key") String conversationKey, Pageable pageable);
+
+    @Query("SELECT c FROM Chat c WHERE c.conversationKey = :key AND " +
+           "(c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Chat> findConversationBefore(@Param("key") String conversationKey, @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id, Pageable pageable);
+
+    // Give messages stored before conversation keys existed their key
+    @Transactional
+    @Modifying
+    @Query("UPDATE Chat c SET c.conversationKey = CASE WHEN c.senderId <= c.receiverId " +
+           "THEN CONCAT(CAST(c.senderId AS String), '_', CAST(c.receiverId AS String)) " +
+           "ELSE CONCAT(CAST(c.receiverId AS String), '_', CAST(c.senderId AS String)) END " +
+           "WHERE c.conversationKey IS NULL AND c.senderId IS NOT NULL AND c.receiverId IS NOT NULL")
+    int backfillConversationKeys();
+
+    // Mark a message read, returning 0 if it already was
+    @Modifying
+    @Query("UPDATE Chat c SET c.isRead = true WHERE c.id = :id AND c.isRead = false")
+    int markRead(@Param("id") Long id);
+
+    // Latest message id of each conversation that has no inbox rows yet
+    @Query("SELECT MAX(c.id) FROM Chat c WHERE c.conversationKey IS NOT NULL AND NOT EXISTS " +
+           "(SELECT i.id FROM ChatInbox i WHERE i.conversationKey = c.conversationKey) GROUP BY c.conversationKey")
+    List<Long> findLatestIdsWithoutInbox(Pageable pageable);
+
+    // [receiverId, conversationKey, unread count] for the given conversations, leaving out notes to self
+    @Query("SELECT c.receiverId, c.conversationKey, COUNT(c) FROM Chat c WHERE c.conversationKey IN :keys " +
+           "AND c.isRead = false AND c.senderId <> c.receiverId GROUP BY c.receiverId, c.conversationKey")
+    List<Object[]> countUnreadByReceiver(@Param("keys") Collection<String> conversationKeys);
 }
@@ -0,0 +1,25 @@
+package com.commerce.ecommerce.repository;
+
+import com.commerce.ecommerce.model.FlashSaleReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FlashSaleReservationRepository extends JpaRepository<FlashSaleReservation, Long> {
+    List<FlashSaleReservation> findByStatusOrderByIdAsc(String status, Pageable pageable);
+
+    @Query("SELECT COALESCE(SUM(r.quantity), 0) FROM FlashSaleReservation r " +
+           "WHERE r.productId = :productId AND r.status = 'PENDING'")
+    long sumPendingQuantity(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("UPDATE FlashSaleReservation r SET r.status = 'APPLIED' WHERE r.id IN :ids AND r.status = 'PENDING'")
+    int markApplied(@Param("ids") Collection<Long> ids);
+}
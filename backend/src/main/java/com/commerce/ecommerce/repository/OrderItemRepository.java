@@ -0,0 +1,42 @@
+package com.commerce.ecommerce.repository;
+
+import com.commerce.ecommerce.dto.OrderItemDTO;
+import com.commerce.ecommerce.dto.SalesItemDTO;
+import com.commerce.ecommerce.model.OrderItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+    // Items of a whole page of orders in one statement, without loading Order entities
+    @Query("SELECT new com.commerce.ecommerce.dto.OrderItemDTO(i.order.id, i.id, i.productId, i.quantity, i.price) " +
+           "FROM OrderItem i WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<OrderItemDTO> findItemsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query("DELETE FROM OrderItem i WHERE i.order.id IN :orderIds")
+    int deleteByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    // Sold (non-cancelled) items of orders in an id and creation-time range, in item id keyset chunks
+    @Query("SELECT new com.commerce.ecommerce.dto.SalesItemDTO(i.id, o.sellerId, o.createdAt, p.category, i.quantity, i.price) " +
+           "FROM OrderItem i JOIN i.order o LEFT JOIN Product p ON p.id = i.productId " +
+           "WHERE o.id BETWEEN :minOrderId AND :maxOrderId AND o.createdAt >= :from AND o.createdAt < :to " +
+           "AND o.status <> 'CANCELLED' AND i.id > :afterItemId ORDER BY i.id")
+    List<SalesItemDTO> findSalesItems(@Param("minOrderId") Long minOrderId, @Param("maxOrderId") Long maxOrderId,
+                                      @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                      @Param("afterItemId") Long afterItemId, Pageable pageable);
+
+    @Query("SELECT COUNT(DISTINCT o.id) FROM OrderItem i JOIN i.order o " +
+           "WHERE o.id BETWEEN :minOrderId AND :maxOrderId AND o.createdAt >= :from AND o.createdAt < :to " +
+           "AND o.status <> 'CANCELLED'")
+    long countSoldOrders(@Param("minOrderId") Long minOrderId, @Param("maxOrderId") Long maxOrderId,
+                         @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,41 @@
+package com.commerce.ecommerce.repository;
+
+import com.commerce.ecommerce.model.OrderOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+    @Query("SELECT e FROM OrderOutboxEvent e WHERE e.processedAt IS NULL AND e.attempts < :maxAttempts ORDER BY e.id")
+    List<OrderOutboxEvent> findPending(@Param("maxAttempts") int maxAttempts, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.processedAt = :now WHERE e.id = :id")
+    int markProcessed(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Every event not yet dispatched, failed ones included
+    @Query("SELECT e.id FROM OrderOutboxEvent e WHERE e.processedAt IS NULL ORDER BY e.id")
+    List<Long> findUnprocessedIds();
+
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.rollupCounted = true WHERE e.id IN :ids")
+    int markRollupCounted(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE OrderOutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error WHERE e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OrderOutboxEvent e WHERE e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
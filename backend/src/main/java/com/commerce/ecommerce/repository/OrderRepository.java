@@ -1,10 +1,21 @@
 package com.commerce.ecommerce.repository;
 
+import com.commerce.ecommerce.dto.DataVersion;
 import com.commerce.ecommerce.model.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -12,4 +23,64 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findBySellerId(Long sellerId);
     List<Order> findByBuyerIdOrderByCreatedAtDesc(Long buyerId);
     List<Order> findBySellerIdOrderByCreatedAtDesc(Long sellerId);
+    Optional<Order> findTopByOrderByIdDesc();
+
+    // Row-locked read so status transitions of one order are serialized
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    // Finished orders last touched before the cutoff whose outbox events have all been delivered
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.updatedAt < :cutoff AND NOT EXISTS " +
+           "(SELECT e.id FROM OrderOutboxEvent e WHERE e.orderId = o.id AND e.processedAt IS NULL) ORDER BY o.id")
+    List<Long> findArchivableIds(@Param("statuses") Collection<String> statuses, @Param("cutoff") LocalDateTime cutoff,
+                                 Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // Version tokens for conditional GET
+    @Query("SELECT new com.commerce.ecommerce.dto.DataVersion(COUNT(o), MAX(o.updatedAt)) FROM Order o")
+    DataVersion findVersion();
+
+    @Query("SELECT new com.commerce.ecommerce.dto.DataVersion(COUNT(o), MAX(o.updatedAt)) FROM Order o WHERE o.buyerId = :buyerId")
+    DataVersion findVersionByBuyerId(@Param("buyerId") Long buyerId);
+
+    @Query("SELECT new com.commerce.ecommerce.dto.DataVersion(COUNT(o), MAX(o.updatedAt)) FROM Order o WHERE o.sellerId = :sellerId")
+    DataVersion findVersionBySellerId(@Param("sellerId") Long sellerId);
+
+    // Keyset pagination, newest first
+    @Query("SELECT o FROM Order o ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findFirstPage(Pageable pageable);
+
+    @Query("SELECT o FROM Order o WHERE o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    // Keyset pagination of one buyer's or seller's history, newest first
+    @Query("SELECT o FROM Order o WHERE o.buyerId = :buyerId ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findBuyerFirstPage(@Param("buyerId") Long buyerId, Pageable pageable);
+
+    @Query("SELECT o FROM Order o WHERE o.buyerId = :buyerId AND " +
+           "(o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findBuyerPageAfter(@Param("buyerId") Long buyerId, @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT o FROM Order o WHERE o.sellerId = :sellerId ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findSellerFirstPage(@Param("sellerId") Long sellerId, Pageable pageable);
+
+    @Query("SELECT o FROM Order o WHERE o.sellerId = :sellerId AND " +
+           "(o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findSellerPageAfter(@Param("sellerId") Long sellerId, @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id, Pageable pageable);
+
+    // Orders get increasing ids as they are created, so a creation-time range maps to an id range
+    @Query("SELECT MIN(o.id) FROM Order o WHERE o.createdAt >= :from AND o.createdAt < :to")
+    Long findMinIdCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT MAX(o.id) FROM Order o WHERE o.createdAt >= :from AND o.createdAt < :to")
+    Long findMaxIdCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
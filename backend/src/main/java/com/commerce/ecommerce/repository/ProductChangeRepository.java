@@ -0,0 +1,17 @@
+package com.commerce.ecommerce.repository;
+
+import com.commerce.ecommerce.model.ProductChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+    List<ProductChange> findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(Long after, Long upTo, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM ProductChange c")
+    long findLatestSequence();
+}
@@ -1,7 +1,135 @@
 package com.commerce.ecommerce.repository;
 
+import com.commerce.ecommerce.dto.DataVersion;
+import com.commerce.ecommerce.dto.ProductDTO;
 import com.commerce.ecommerce.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    // Columns shown by product grids; leaves out the imagesJson TEXT column
+    String LISTING = "SELECT new com.commerce.ecommerce.dto.ProductDTO(p.id, p.name, p.price, p.description, p.imageUrl, " +
+                     "p.stock, p.sellerId, p.category, p.status, p.rating, p.reviews, p.createdAt) FROM Product p ";
+    String AFTER_CURSOR = "(p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) ";
+    String NEWEST_FIRST = "ORDER BY p.createdAt DESC, p.id DESC";
+
+    List<Product> findBySellerId(Long sellerId);
+    List<Product> findByStatusAndStockGreaterThan(String status, int stock);
+    List<Product> findByCategoryAndStatus(String category, String status);
+
+    // Listing projections
+    @Query(LISTING)
+    List<ProductDTO> findAllListings();
+
+    @Query(LISTING + "WHERE p.sellerId = :sellerId")
+    List<ProductDTO> findListingsBySellerId(@Param("sellerId") Long sellerId);
+
+    @Query(LISTING + "WHERE p.status = 'ACTIVE' AND p.stock > 0")
+    List<ProductDTO> findActiveListings();
+
+    @Query(LISTING + "WHERE p.category = :category AND p.status = 'ACTIVE'")
+    List<ProductDTO> findActiveListingsByCategory(@Param("category") String category);
+
+    @Query(LISTING + "WHERE p.id IN :ids")
+    List<ProductDTO> findListingsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(LISTING + NEWEST_FIRST)
+    List<ProductDTO> findFirstListingPage(Pageable pageable);
+
+    @Query(LISTING + "WHERE " + AFTER_CURSOR + NEWEST_FIRST)
+    List<ProductDTO> findListingPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query(LISTING + "WHERE p.status = 'ACTIVE' AND p.stock > 0 " + NEWEST_FIRST)
+    List<ProductDTO> findFirstActiveListingPage(Pageable pageable);
+
+    @Query(LISTING + "WHERE p.status = 'ACTIVE' AND p.stock > 0 AND " + AFTER_CURSOR + NEWEST_FIRST)
+    List<ProductDTO> findActiveListingPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    // Take quantity out of stock in one statement; returns 0 when not enough is left
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.stock >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    // Unconditional decrement for stock that was already granted elsewhere (flash sale reconciliation)
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.updatedAt = :now WHERE p.id = :id")
+    int deductStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    // Put stock back, e.g. for a cancelled order
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :quantity, p.updatedAt = :now WHERE p.id = :id")
+    int restoreStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    // Add to the rating totals and histogram in one statement and derive the average from them.
+    // rating is assigned first so it reads the old totals on every database, MySQL included.
+    @Modifying
+    @Query("UPDATE Product p SET " +
+           "p.rating = CASE WHEN p.reviews + :count > 0 " +
+           "THEN ROUND((p.ratingSum + :sum) * 1.0 / (p.reviews + :count), 1) ELSE 0 END, " +
+           "p.ratingSum = p.ratingSum + :sum, p.reviews = p.reviews + :count, " +
+           "p.oneStar = p.oneStar + :one, p.twoStars = p.twoStars + :two, p.threeStars = p.threeStars + :three, " +
+           "p.fourStars = p.fourStars + :four, p.fiveStars = p.fiveStars + :five, p.updatedAt = :now " +
+           "WHERE p.id = :id")
+    int applyRatingDelta(@Param("id") Long id, @Param("sum") long sum, @Param("count") int count,
+                         @Param("one") int one, @Param("two") int two, @Param("three") int three,
+                         @Param("four") int four, @Param("five") int five, @Param("now") LocalDateTime now);
+
+    // Overwrite the rating totals and histogram, e.g. when rebuilding them from the reviews
+    @Modifying
+    @Query("UPDATE Product p SET " +
+           "p.rating = CASE WHEN :count > 0 THEN ROUND(:sum * 1.0 / :count, 1) ELSE 0 END, " +
+           "p.ratingSum = :sum, p.reviews = :count, p.oneStar = :one, p.twoStars = :two, p.threeStars = :three, " +
+           "p.fourStars = :four, p.fiveStars = :five, p.updatedAt = :now WHERE p.id = :id")
+    int setRatingTotals(@Param("id") Long id, @Param("sum") long sum, @Param("count") int count,
+                        @Param("one") int one, @Param("two") int two, @Param("three") int three,
+                        @Param("four") int four, @Param("five") int five, @Param("now") LocalDateTime now);
+
+    // Products whose histogram disagrees with the review count, i.e. rated before the histogram existed
+    @Query("SELECT p.id FROM Product p WHERE p.oneStar + p.twoStars + p.threeStars + p.fourStars + p.fiveStars <> p.reviews")
+    List<Long> findIdsWithStaleRatingTotals();
+
+    // Seller of a product, null when the product has none or does not exist
+    @Query("SELECT p.sellerId FROM Product p WHERE p.id = :id")
+    Long findSellerIdById(@Param("id") Long id);
+
+    // Row-locked read so a rebuild and concurrent increments do not interleave
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    // Version tokens for conditional GET
+    @Query("SELECT new com.commerce.ecommerce.dto.DataVersion(COUNT(p), MAX(p.updatedAt)) FROM Product p")
+    DataVersion findVersion();
+
+    @Query("SELECT new com.commerce.ecommerce.dto.DataVersion(COUNT(p), MAX(p.updatedAt)) FROM Product p WHERE p.sellerId = :sellerId")
+    DataVersion findVersionBySellerId(@Param("sellerId") Long sellerId);
+
+    // Keyset pagination, newest first
+    @Query("SELECT p FROM Product p ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findFirstPage(Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.status = 'ACTIVE' AND p.stock > 0 ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findFirstActivePage(Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.status = 'ACTIVE' AND p.stock > 0 " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findActivePageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
 }
\ No newline at end of file
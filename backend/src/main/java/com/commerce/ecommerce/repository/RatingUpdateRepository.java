@@ -0,0 +1,28 @@
+package com.commerce.ecommerce.repository;
+
+import com.commerce.ecommerce.model.RatingUpdate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RatingUpdateRepository extends JpaRepository<RatingUpdate, Long> {
+    // Products with queued changes, the longest waiting first
+    @Query("SELECT u.productId FROM RatingUpdate u GROUP BY u.productId ORDER BY MIN(u.id)")
+    List<Long> findPendingProductIds(Pageable pageable);
+
+    List<RatingUpdate> findByProductIdOrderByIdAsc(Long productId);
+
+    @Query("SELECT COUNT(DISTINCT u.productId) FROM RatingUpdate u")
+    long countPendingProducts();
+
+    @Modifying
+    @Query("DELETE FROM RatingUpdate u WHERE u.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
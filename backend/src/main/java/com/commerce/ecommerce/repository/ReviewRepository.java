@@ -1,13 +1,74 @@
 package com.commerce.ecommerce.repository;
 
 import com.commerce.ecommerce.model.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
     List<Review> findByProductId(Long productId);
     List<Review> findByUserId(Long userId);
+
+    // Returns 0 if another request already deleted it, so the rating is only adjusted once
+    @Modifying
+    @Query("DELETE FROM Review r WHERE r.id = :id")
+    int deleteReviewById(@Param("id") Long id);
+
+    // [rating, count] pairs for one product, to rebuild its totals
+    @Query("SELECT r.rating, COUNT(r) FROM Review r WHERE r.productId = :productId GROUP BY r.rating")
+    List<Object[]> countByRating(@Param("productId") Long productId);
+
+    // [sellerId, star total, review count] for the given sellers, over valid 1-5 star reviews of their products
+    @Query("SELECT p.sellerId, SUM(r.rating), COUNT(r) FROM Review r JOIN Product p ON p.id = r.productId " +
+           "WHERE p.sellerId IN :sellerIds AND r.rating BETWEEN 1 AND 5 GROUP BY p.sellerId")
+    List<Object[]> sumRatingsBySeller(@Param("sellerIds") Collection<Long> sellerIds);
+
+    // Keyset pagination of a product's reviews, newest first
+    @Query("SELECT r FROM Review r WHERE r.productId = :productId ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findNewestFirstPage(@Param("productId") Long productId, Pageable pageable);
+
+    @Query("SELECT r FROM Review r WHERE r.productId = :productId AND " +
+           "(r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findNewestPageAfter(@Param("productId") Long productId, @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id, Pageable pageable);
+
+    // Newest first, only reviews with a written comment
+    @Query("SELECT r FROM Review r WHERE r.productId = :productId AND r.comment IS NOT NULL AND r.comment <> '' " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findWithCommentFirstPage(@Param("productId") Long productId, Pageable pageable);
+
+    @Query("SELECT r FROM Review r WHERE r.productId = :productId AND r.comment IS NOT NULL AND r.comment <> '' AND " +
+           "(r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findWithCommentPageAfter(@Param("productId") Long productId, @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id, Pageable pageable);
+
+    // Highest rated first, newest first within a star count
+    @Query("SELECT r FROM Review r WHERE r.productId = :productId ORDER BY r.rating DESC, r.createdAt DESC, r.id DESC")
+    List<Review> findHighestFirstPage(@Param("productId") Long productId, Pageable pageable);
+
+    @Query("SELECT r FROM Review r WHERE r.productId = :productId AND (r.rating < :rating OR (r.rating = :rating AND " +
+           "(r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)))) " +
+           "ORDER BY r.rating DESC, r.createdAt DESC, r.id DESC")
+    List<Review> findHighestPageAfter(@Param("productId") Long productId, @Param("rating") int rating,
+                                      @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    // Lowest rated first; the exact reverse of the highest order, so both walk the same index
+    @Query("SELECT r FROM Review r WHERE r.productId = :productId ORDER BY r.rating ASC, r.createdAt ASC, r.id ASC")
+    List<Review> findLowestFirstPage(@Param("productId") Long productId, Pageable pageable);
+
+    @Query("SELECT r FROM Review r WHERE r.productId = :productId AND (r.rating > :rating OR (r.rating = :rating AND " +
+           "(r.createdAt > :createdAt OR (r.createdAt = :createdAt AND r.id > :id)))) " +
+           "ORDER BY r.rating ASC, r.createdAt ASC, r.id ASC")
+    List<Review> findLowestPageAfter(@Param("productId") Long productId, @Param("rating") int rating,
+                                     @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
 }
@@ -0,0 +1,35 @@
+package com.commerce.ecommerce.repository;
+
+import com.commerce.ecommerce.model.SellerDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SellerDailyStatsRepository extends JpaRepository<SellerDailyStats, Long> {
+    // One row per day with orders, through the (sellerId, statsDate) unique key
+    List<SellerDailyStats> findBySellerIdAndStatsDateBetweenOrderByStatsDateAsc(Long sellerId, LocalDate from, LocalDate to);
+
+    // Any row at all, i.e. the rollups have been built
+    Optional<SellerDailyStats> findTopByOrderByIdAsc();
+
+    // Add a delta to the seller's row for the day in one statement; 0 if the day has no row yet
+    @Modifying
+    @Query("UPDATE SellerDailyStats s SET " +
+           "s.orderCount = s.orderCount + :#{#delta.orderCount}, " +
+           "s.revenue = s.revenue + :#{#delta.revenue}, " +
+           "s.units = s.units + :#{#delta.units}, " +
+           "s.pendingCount = s.pendingCount + :#{#delta.pendingCount}, " +
+           "s.confirmedCount = s.confirmedCount + :#{#delta.confirmedCount}, " +
+           "s.shippedCount = s.shippedCount + :#{#delta.shippedCount}, " +
+           "s.deliveredCount = s.deliveredCount + :#{#delta.deliveredCount}, " +
+           "s.cancelledCount = s.cancelledCount + :#{#delta.cancelledCount} " +
+           "WHERE s.sellerId = :#{#delta.sellerId} AND s.statsDate = :#{#delta.statsDate}")
+    int applyDelta(@Param("delta") SellerDailyStats delta);
+}
@@ -1,9 +1,37 @@
 package com.commerce.ecommerce.repository;
 
+import java.util.List;
 import java.util.Optional;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.commerce.ecommerce.model.User;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
-}
\ No newline at end of file
+
+    boolean existsByRatingSumGreaterThan(long ratingSum);
+
+    // Add to a user's rating totals in one statement; ratings is assigned first so it reads the old totals
+    @Modifying
+    @Query("UPDATE User u SET " +
+           "u.ratings = CASE WHEN u.totalReviews + :count > 0 " +
+           "THEN ROUND((u.ratingSum + :sum) * 1.0 / (u.totalReviews + :count), 1) ELSE 0 END, " +
+           "u.ratingSum = u.ratingSum + :sum, u.totalReviews = u.totalReviews + :count WHERE u.id = :id")
+    int applyRatingDelta(@Param("id") Long id, @Param("sum") long sum, @Param("count") int count);
+
+    @Modifying
+    @Query("UPDATE User u SET u.ratings = CASE WHEN :count > 0 THEN ROUND(:sum * 1.0 / :count, 1) ELSE 0 END, " +
+           "u.ratingSum = :sum, u.totalReviews = :count WHERE u.id = :id")
+    int setRatingTotals(@Param("id") Long id, @Param("sum") long sum, @Param("count") int count);
+
+    // Users in id order, row-locked, for chunked rating rebuilds
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<User> findChunkForUpdate(@Param("afterId") Long afterId, Pageable pageable);
+}
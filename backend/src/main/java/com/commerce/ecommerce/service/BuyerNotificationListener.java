@@ -0,0 +1,22 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.Order;
+import com.commerce.ecommerce.model.OrderOutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// Tells the buyer about order progress; there is no mail or push channel yet, so it only logs
+@Component
+public class BuyerNotificationListener implements OrderEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(BuyerNotificationListener.class);
+
+    @Override
+    public void onOrderEvent(OrderOutboxEvent event, Order order) {
+        if (order == null || order.getBuyerId() == null) {
+            return;
+        }
+        log.info("Notify buyer {}: order {} is now {}", order.getBuyerId(), order.getId(), event.getToStatus());
+    }
+}
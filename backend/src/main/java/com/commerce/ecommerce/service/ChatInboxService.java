@@ -0,0 +1,157 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.config.PaginationProperties;
+import com.commerce.ecommerce.dto.CursorPage;
+import com.commerce.ecommerce.dto.KeysetCursor;
+import com.commerce.ecommerce.model.Chat;
+import com.commerce.ecommerce.model.ChatInbox;
+import com.commerce.ecommerce.repository.ChatInboxRepository;
+import com.commerce.ecommerce.repository.ChatRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Materialized chat sidebar. Every user has one chat_inbox row per
+ * conversation holding its latest message and their unread count, updated
+ * in the same transaction that sends or reads a message, so listing an
+ * inbox is a keyset scan over the user's conversations instead of every
+ * message they ever exchanged. Rows are updated in place with a single
+ * statement; only a conversation's first message inserts them, and the
+ * unique (userId, conversationKey) key makes the loser of two racing first
+ * messages roll back, which ChatService retries.
+ */
+@Service
+public class ChatInboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatInboxService.class);
+
+    static final int PREVIEW_LENGTH = 100;
+    private static final int BACKFILL_BATCH_SIZE = 500;
+    private static final int BACKFILL_MAX_FAILURES = 3;
+
+    @Autowired
+    private ChatInboxRepository inboxRepository;
+
+    @Autowired
+    private ChatRepository chatRepository;
+
+    @Autowired
+    private PaginationProperties pagination;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Move both participants' rows to this message; it counts as unread for the receiver only.
+    // Rows are touched in user id order so A->B and B->A messages cannot deadlock each other.
+    @Transactional
+    public void recordMessage(Chat chat) {
+        Long senderId = chat.getSenderId();
+        Long receiverId = chat.getReceiverId();
+        String preview = preview(chat.getMessage());
+        if (senderId.equals(receiverId)) {
+            apply(senderId, receiverId, chat, preview, 0);
+        } else if (senderId < receiverId) {
+            apply(senderId, receiverId, chat, preview, 0);
+            apply(receiverId, senderId, chat, preview, 1);
+        } else {
+            apply(receiverId, senderId, chat, preview, 1);
+            apply(senderId, receiverId, chat, preview, 0);
+        }
+    }
+
+    // A message that just went from unread to read leaves its receiver's unread count
+    @Transactional
+    public void recordRead(Chat chat) {
+        if (!chat.getSenderId().equals(chat.getReceiverId())) {
+            inboxRepository.decrementUnread(chat.getReceiverId(),
+                    Chat.conversationKey(chat.getSenderId(), chat.getReceiverId()));
+        }
+    }
+
+    // A user's conversations, most recent first
+    public CursorPage<ChatInbox> getInbox(Long userId, String cursor, Integer limit) {
+        int size = pagination.resolve(limit);
+        PageRequest request = PageRequest.of(0, size + 1);
+        List<ChatInbox> fetched;
+        if (cursor == null) {
+            fetched = inboxRepository.findLatestPage(userId, request);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            fetched = inboxRepository.findPageBefore(userId, after.getCreatedAt(), after.getId(), request);
+        }
+        return CursorPage.of(fetched, size, i -> new KeysetCursor(i.getLastMessageAt(), i.getId()));
+    }
+
+    // Build rows for conversations that predate the inbox, a batch of conversations per transaction.
+    // Needs conversation keys in place. A batch that collides with a live first message is rolled
+    // back and picked up again on the next pass, minus the conversation that now has its rows.
+    public void backfill() {
+        int created = 0;
+        int failures = 0;
+        while (true) {
+            List<Long> lastIds = chatRepository.findLatestIdsWithoutInbox(PageRequest.of(0, BACKFILL_BATCH_SIZE));
+            if (lastIds.isEmpty()) {
+                break;
+            }
+            try {
+                created += transactionTemplate.execute(status -> backfillBatch(lastIds));
+            } catch (DataIntegrityViolationException e) {
+                if (++failures >= BACKFILL_MAX_FAILURES) {
+                    log.warn("Giving up on chat inbox backfill: {}", e.toString());
+                    break;
+                }
+            }
+        }
+        if (created > 0) {
+            log.info("Backfilled {} chat inbox rows", created);
+        }
+    }
+
+    private int backfillBatch(List<Long> lastIds) {
+        List<Chat> lastMessages = chatRepository.findAllById(lastIds);
+        Map<String, Long> unread = chatRepository
+                .countUnreadByReceiver(lastMessages.stream().map(Chat::getConversationKey).toList()).stream()
+                .collect(Collectors.toMap(row -> row[0] + "|" + row[1], row -> ((Number) row[2]).longValue()));
+        List<ChatInbox> rows = new ArrayList<>();
+        for (Chat last : lastMessages) {
+            Long senderId = last.getSenderId();
+            Long receiverId = last.getReceiverId();
+            String preview = preview(last.getMessage());
+            rows.add(new ChatInbox(senderId, receiverId, last, preview,
+                    unread.getOrDefault(senderId + "|" + last.getConversationKey(), 0L)));
+            if (!senderId.equals(receiverId)) {
+                rows.add(new ChatInbox(receiverId, senderId, last, preview,
+                        unread.getOrDefault(receiverId + "|" + last.getConversationKey(), 0L)));
+            }
+        }
+        inboxRepository.saveAllAndFlush(rows);
+        return rows.size();
+    }
+
+    // Update the user's row, or insert it for the conversation's first message
+    private void apply(Long userId, Long otherUserId, Chat chat, String preview, long unread) {
+        int updated = inboxRepository.applyMessage(userId, Chat.conversationKey(userId, otherUserId), chat.getId(),
+                chat.getSenderId(), preview, chat.getCreatedAt(), unread);
+        if (updated == 0) {
+            inboxRepository.saveAndFlush(new ChatInbox(userId, otherUserId, chat, preview, unread));
+        }
+    }
+
+    private static String preview(String message) {
+        if (message == null || message.length() <= PREVIEW_LENGTH) {
+            return message;
+        }
+        return message.substring(0, PREVIEW_LENGTH);
+    }
+}
@@ -0,0 +1,17 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.Chat;
+
+// Published inside the transaction that stored a chat message
+public class ChatMessageSentEvent {
+
+    private final Chat chat;
+
+    public ChatMessageSentEvent(Chat chat) {
+        this.chat = chat;
+    }
+
+    public Chat getChat() {
+        return chat;
+    }
+}
@@ -0,0 +1,231 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.Chat;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent event streams for chat. Each open stream is an async servlet
+ * request, so an idle connection holds a socket but no request thread, and
+ * the registry is only a map from user id to that user's open streams (one
+ * per tab). New messages are pushed to the receiver's and the sender's
+ * streams once sendMessage has committed; a periodic comment keeps idle
+ * connections from being closed by proxies and weeds out dead ones.
+ * Writes go out on a small pool of their own, one write at a time per
+ * stream, so a client whose socket has stalled ties up one push thread
+ * rather than the shared async executor. A stream whose write has not
+ * finished within the send timeout, or whose backlog overflows, is dropped.
+ */
+@Component
+public class ChatPushService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatPushService.class);
+
+    private final Map<Long, Set<Stream>> streams = new ConcurrentHashMap<>();
+
+    @Value("${app.chat.stream-timeout:PT30M}")
+    private Duration streamTimeout;
+
+    @Value("${app.chat.push-threads:8}")
+    private int pushThreads;
+
+    @Value("${app.chat.push-queue-size:10000}")
+    private int pushQueueSize;
+
+    @Value("${app.chat.stream-backlog:100}")
+    private int streamBacklog;
+
+    @Value("${app.chat.send-timeout:PT10S}")
+    private Duration sendTimeout;
+
+    private ThreadPoolExecutor pushExecutor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threads = new AtomicInteger();
+        pushExecutor = new ThreadPoolExecutor(pushThreads, pushThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(pushQueueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "chat-push-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pushExecutor.shutdownNow();
+    }
+
+    // Open a stream for a user; the browser's EventSource reconnects when it times out
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Stream stream = new Stream(userId, emitter);
+        streams.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(stream);
+        emitter.onCompletion(() -> remove(stream));
+        emitter.onTimeout(() -> remove(stream));
+        emitter.onError(e -> remove(stream));
+        // First event flushes the response headers so the client sees the stream as open
+        push(stream, SseEmitter.event().name("connected").data(userId));
+        return emitter;
+    }
+
+    // Push a stored message after its transaction commits (or right away when there was none)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageSent(ChatMessageSentEvent event) {
+        Chat chat = event.getChat();
+        push(chat.getReceiverId(), chat);
+        if (!chat.getSenderId().equals(chat.getReceiverId())) {
+            push(chat.getSenderId(), chat);
+        }
+    }
+
+    private void push(Long userId, Chat chat) {
+        Set<Stream> userStreams = streams.get(userId);
+        if (userStreams == null) {
+            return;
+        }
+        for (Stream stream : userStreams) {
+            push(stream, SseEmitter.event().name("chat").id(String.valueOf(chat.getId()))
+                    .data(chat, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    // Only queues the pings, so a stalled client never holds up the scheduler thread
+    @Scheduled(fixedDelayString = "${app.chat.heartbeat-interval:PT25S}")
+    public void heartbeat() {
+        streams.values().forEach(userStreams -> userStreams.forEach(stream ->
+                push(stream, SseEmitter.event().comment("ping"))));
+    }
+
+    // Drop streams stuck in one write for longer than the send timeout. The emitter can't be
+    // completed while its write holds it, so the stream is unregistered and its backlog discarded;
+    // the blocked write then ends with the container's socket timeout and frees its thread.
+    @Scheduled(fixedDelayString = "${app.chat.send-timeout:PT10S}")
+    public void dropStalledStreams() {
+        long cutoff = System.nanoTime() - sendTimeout.toNanos();
+        streams.values().forEach(userStreams -> userStreams.forEach(stream -> {
+            long since = stream.sendingSince;
+            if (since != 0 && since < cutoff) {
+                log.debug("Dropping chat stream of user {}: write stalled for over {}", stream.userId, sendTimeout);
+                drop(stream);
+            }
+        }));
+    }
+
+    // Queue an event behind the stream's earlier ones and make sure a push thread is draining them
+    private void push(Stream stream, SseEmitter.SseEventBuilder event) {
+        if (stream.dropped) {
+            return;
+        }
+        if (stream.backlog.incrementAndGet() > streamBacklog) {
+            log.debug("Dropping chat stream of user {}: more than {} events behind", stream.userId, streamBacklog);
+            drop(stream);
+            return;
+        }
+        stream.events.add(event);
+        schedule(stream);
+    }
+
+    private void schedule(Stream stream) {
+        if (!stream.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            pushExecutor.execute(() -> drain(stream));
+        } catch (RejectedExecutionException e) {
+            log.warn("Chat push pool saturated; dropping a stream of user {}", stream.userId);
+            discard(stream);
+            stream.draining.set(false);
+            // Nothing is writing to it, so completing can't block here
+            stream.emitter.complete();
+        }
+    }
+
+    // Write the stream's queued events in order; runs on one push thread at a time per stream
+    private void drain(Stream stream) {
+        SseEmitter.SseEventBuilder event;
+        while (!stream.dropped && (event = stream.events.poll()) != null) {
+            stream.backlog.decrementAndGet();
+            stream.sendingSince = System.nanoTime();
+            try {
+                stream.emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the stream already completed
+                discard(stream);
+                stream.emitter.completeWithError(e);
+                return;
+            } finally {
+                stream.sendingSince = 0;
+            }
+        }
+        if (stream.dropped) {
+            stream.emitter.complete();
+            return;
+        }
+        stream.draining.set(false);
+        // An event queued after the last poll but before the flag was cleared still gets a thread,
+        // and so does a drop that raced with the flag
+        if (!stream.events.isEmpty() || stream.dropped) {
+            schedule(stream);
+        }
+    }
+
+    // Stop writing to a stream and have a push thread complete it: the one draining it once its
+    // current write ends, or a fresh one, so the caller never waits on a stalled write
+    private void drop(Stream stream) {
+        discard(stream);
+        schedule(stream);
+    }
+
+    private void discard(Stream stream) {
+        stream.dropped = true;
+        stream.events.clear();
+        remove(stream);
+    }
+
+    private void remove(Stream stream) {
+        streams.computeIfPresent(stream.userId, (id, userStreams) -> {
+            userStreams.remove(stream);
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+    }
+
+    // One open EventSource connection and the events waiting to be written to it
+    private static final class Stream {
+        final Long userId;
+        final SseEmitter emitter;
+        final Queue<SseEmitter.SseEventBuilder> events = new ConcurrentLinkedQueue<>();
+        final AtomicInteger backlog = new AtomicInteger();
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile long sendingSince;
+        volatile boolean dropped;
+
+        Stream(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+}
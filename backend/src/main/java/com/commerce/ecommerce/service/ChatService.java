@@ -1,10 +1,22 @@
 package com.commerce.ecommerce.service;
 
+import com.commerce.ecommerce.config.PaginationProperties;
+import com.commerce.ecommerce.dto.CursorPage;
+import com.commerce.ecommerce.dto.KeysetCursor;
 import com.commerce.ecommerce.model.Chat;
 import com.commerce.ecommerce.repository.ChatRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Service
@@ -13,20 +25,65 @@ public class ChatService {
     @Autowired
     private ChatRepository chatRepository;
 
-    // Send message
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PaginationProperties pagination;
+
+    @Autowired
+    private ChatInboxService inboxService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Send message; both users' inbox rows move with it, and connected clients of both users get
+    // it pushed once it is committed. Two racing first messages of a conversation both try to
+    // create the inbox rows; the one that loses is rolled back and sent again, finding them.
     public Chat sendMessage(Long senderId, Long receiverId, String message) {
-        Chat chat = new Chat(senderId, receiverId, message);
-        return chatRepository.save(chat);
+        try {
+            return transactionTemplate.execute(status -> send(senderId, receiverId, message));
+        } catch (DataIntegrityViolationException e) {
+            return transactionTemplate.execute(status -> send(senderId, receiverId, message));
+        }
+    }
+
+    private Chat send(Long senderId, Long receiverId, String message) {
+        Chat chat = chatRepository.save(new Chat(senderId, receiverId, message));
+        inboxService.recordMessage(chat);
+        eventPublisher.publishEvent(new ChatMessageSentEvent(chat));
+        return chat;
     }
 
-    // Get conversation
+    // Get conversation, oldest first
     public List<Chat> getConversation(Long userId1, Long userId2) {
-        List<Chat> messages1 = chatRepository.findBySenderIdAndReceiverId(userId1, userId2);
-        List<Chat> messages2 = chatRepository.findBySenderIdAndReceiverId(userId2, userId1);
-        messages1.addAll(messages2);
-        return messages1.stream()
-                .sorted((m1, m2) -> m1.getCreatedAt().compareTo(m2.getCreatedAt()))
-                .toList();
+        return chatRepository.findByConversationKeyOrderByCreatedAtAscIdAsc(Chat.conversationKey(userId1, userId2));
+    }
+
+    // Latest messages of a conversation, or the ones before the cursor when scrolling back.
+    // Items are oldest first for display; nextCursor points at older messages.
+    public CursorPage<Chat> getConversationPage(Long userId1, Long userId2, String cursor, Integer limit) {
+        int size = pagination.resolve(limit);
+        PageRequest request = PageRequest.of(0, size + 1);
+        String key = Chat.conversationKey(userId1, userId2);
+        List<Chat> fetched;
+        if (cursor == null) {
+            fetched = chatRepository.findConversationLatest(key, request);
+        } else {
+            KeysetCursor before = KeysetCursor.decode(cursor);
+            fetched = chatRepository.findConversationBefore(key, before.getCreatedAt(), before.getId(), request);
+        }
+        CursorPage<Chat> page = CursorPage.of(fetched, size, c -> new KeysetCursor(c.getCreatedAt(), c.getId()));
+        List<Chat> chronological = new ArrayList<>(page.getItems());
+        Collections.reverse(chronological);
+        return new CursorPage<>(chronological, page.getNextCursor());
+    }
+
+    // Messages stored before conversation keys and the inbox existed are backfilled once, at startup
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        chatRepository.backfillConversationKeys();
+        inboxService.backfill();
     }
 
     // Get user chats
@@ -34,14 +91,15 @@ public class ChatService {
         return chatRepository.findBySenderIdOrReceiverId(userId, userId);
     }
 
-    // Mark as read
+    // Mark as read; only the request that actually flips the message takes it off the unread count
+    @Transactional
     public Chat markAsRead(Long chatId) {
+        int flipped = chatRepository.markRead(chatId);
         Chat chat = chatRepository.findById(chatId).orElse(null);
-        if (chat != null) {
-            chat.setRead(true);
-            return chatRepository.save(chat);
+        if (chat != null && flipped == 1) {
+            inboxService.recordRead(chat);
         }
-        return null;
+        return chat;
     }
 
     // Get unread messages
@@ -0,0 +1,22 @@
+package com.commerce.ecommerce.service;
+
+// Thrown when a product update would overwrite the stock of a product that is on flash sale,
+// or an order line reaches a sale that is being stopped
+public class FlashSaleActiveException extends RuntimeException {
+
+    private final Long productId;
+
+    public FlashSaleActiveException(Long productId) {
+        super("Product " + productId + " is on flash sale; stop the sale before changing its stock");
+        this.productId = productId;
+    }
+
+    public FlashSaleActiveException(Long productId, String message) {
+        super(message);
+        this.productId = productId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+}
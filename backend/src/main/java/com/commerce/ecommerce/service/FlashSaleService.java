@@ -0,0 +1,241 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.FlashSaleReservation;
+import com.commerce.ecommerce.model.Product;
+import com.commerce.ecommerce.repository.FlashSaleReservationRepository;
+import com.commerce.ecommerce.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opt-in flash-sale mode for hot products. While a product is on sale its
+ * stock lives in a striped in-memory counter, so checkouts are granted
+ * without locking the product row. Each grant is written to the
+ * flash_sale_reservations log in the order's own transaction, and a
+ * background reconciler takes PENDING reservations off Product.stock in
+ * batches. After a crash the log is drained on startup before any counter
+ * is seeded again, so no committed reservation is lost or applied twice.
+ * Stopping a sale first fences it: new grants are refused, grants already
+ * handed out are let finish, their reservations are reconciled, and only
+ * then do orders go back to the database path. While a sale runs, its
+ * product's stock can only change through orders, never through a product
+ * update.
+ */
+@Service
+public class FlashSaleService {
+
+    public enum Reservation { NOT_ON_SALE, RESERVED, SOLD_OUT }
+
+    // A running sale and the grants it has handed out whose transactions have not finished yet
+    private static final class Sale {
+        final StripedCounter counter;
+        final AtomicInteger inFlight = new AtomicInteger();
+        volatile CountDownLatch drained = new CountDownLatch(1);
+        volatile boolean stopping;
+
+        Sale(StripedCounter counter) {
+            this.counter = counter;
+        }
+
+        // A grant's transaction finished; the last one out while the sale is stopping opens the latch
+        void finishGrant() {
+            if (inFlight.decrementAndGet() == 0 && stopping) {
+                drained.countDown();
+            }
+        }
+    }
+
+    @Autowired
+    private FlashSaleReservationRepository reservationRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.flash-sale.stripes:16}")
+    private int stripes;
+
+    @Value("${app.flash-sale.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.flash-sale.product-ids:}")
+    private List<Long> configuredProductIds;
+
+    @Value("${app.flash-sale.stop-wait-timeout:PT5S}")
+    private Duration stopWaitTimeout;
+
+    private final Map<Long, Sale> sales = new ConcurrentHashMap<>();
+
+    // Apply reservations left over from the previous run, then open the configured sales
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        reconcile();
+        configuredProductIds.forEach(this::start);
+    }
+
+    // Put a product on flash sale; returns false if the product does not exist. The counter is
+    // seeded under the product row lock, so a concurrent product update either lands before the
+    // stock is read or sees the sale and is rejected.
+    public synchronized boolean start(Long productId) {
+        if (sales.containsKey(productId)) {
+            return true;
+        }
+        return transactionTemplate.execute(status -> {
+            Optional<Product> product = productRepository.findByIdForUpdate(productId);
+            if (product.isEmpty()) {
+                return false;
+            }
+            long available = product.get().getStock() - reservationRepository.sumPendingQuantity(productId);
+            sales.put(productId, new Sale(new StripedCounter((int) Math.max(0, available), stripes)));
+            return true;
+        });
+    }
+
+    // End a flash sale. New grants are refused, grants in flight are let finish, and everything
+    // they reserved is taken off Product.stock before orders go back to the database path.
+    // Only this sale's stoppers wait for its grants; other sales and the reconciler carry on.
+    public boolean stop(Long productId) {
+        Sale sale = sales.get(productId);
+        if (sale == null) {
+            return false;
+        }
+        synchronized (sale) {
+            if (sales.get(productId) != sale) {
+                return false;
+            }
+            // Latch before fence, and fence before the count is read: either the last grant out
+            // sees stopping and opens the latch, or the count is already zero here
+            sale.drained = new CountDownLatch(1);
+            sale.stopping = true;
+            if (sale.inFlight.get() == 0) {
+                sale.drained.countDown();
+            }
+            try {
+                if (!sale.drained.await(stopWaitTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new IllegalStateException("Flash sale for product " + productId
+                            + " still has orders in progress; try stopping it again");
+                }
+                reconcile();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                sale.stopping = false;
+                throw new IllegalStateException("Interrupted while stopping flash sale for product " + productId, e);
+            } catch (RuntimeException e) {
+                // Grants or reservations may still be outstanding, so the sale keeps running and stop can be retried
+                sale.stopping = false;
+                throw e;
+            }
+            sales.remove(productId);
+            return true;
+        }
+    }
+
+    // True while the product's stock is held by a sale, including one that is being stopped
+    public boolean isOnSale(Long productId) {
+        return sales.containsKey(productId);
+    }
+
+    // Units left in memory for every product on sale
+    public Map<Long, Integer> getActiveSales() {
+        Map<Long, Integer> remaining = new TreeMap<>();
+        sales.forEach((productId, sale) -> remaining.put(productId, sale.counter.remaining()));
+        return remaining;
+    }
+
+    // Grant stock for one order line. Must run inside the order's transaction:
+    // the log row commits with the order, and the units are handed back if it rolls back.
+    // A sale that is being stopped refuses the line at once rather than hold the transaction open.
+    public Reservation reserve(Long orderId, Long productId, int quantity) {
+        Sale sale = sales.get(productId);
+        if (sale == null) {
+            return Reservation.NOT_ON_SALE;
+        }
+        // Counted before stopping is checked, and stop() sets stopping before it counts, so a
+        // grant is either seen and waited for by stop() or sees the fence itself
+        sale.inFlight.incrementAndGet();
+        if (sale.stopping) {
+            sale.finishGrant();
+            throw new FlashSaleActiveException(productId, "Flash sale for product " + productId
+                    + " is ending; try again in a moment");
+        }
+        if (!sale.counter.tryTake(quantity)) {
+            sale.finishGrant();
+            return Reservation.SOLD_OUT;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    sale.counter.release(quantity);
+                }
+                sale.finishGrant();
+            }
+        });
+        reservationRepository.save(new FlashSaleReservation(productId, orderId, quantity));
+        return Reservation.RESERVED;
+    }
+
+    // Hand units back to a running sale once the caller's transaction commits, e.g. for a cancelled order
+    public void releaseAfterCommit(Long productId, int quantity) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Sale sale = sales.get(productId);
+                if (sale != null) {
+                    sale.counter.release(quantity);
+                }
+            }
+        });
+    }
+
+    // Take PENDING reservations off Product.stock, one transaction per batch
+    @Scheduled(fixedDelayString = "${app.flash-sale.reconcile-interval:PT1S}")
+    public synchronized void reconcile() {
+        while (true) {
+            Map<Long, Integer> applied = transactionTemplate.execute(status -> applyBatch());
+            if (applied.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    private Map<Long, Integer> applyBatch() {
+        List<FlashSaleReservation> batch = reservationRepository.findByStatusOrderByIdAsc("PENDING",
+                PageRequest.of(0, batchSize));
+        Map<Long, Integer> quantities = new TreeMap<>();
+        batch.forEach(r -> quantities.merge(r.getProductId(), r.getQuantity(), Integer::sum));
+        if (!batch.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            quantities.forEach((productId, quantity) -> productRepository.deductStock(productId, quantity, now));
+            reservationRepository.markApplied(batch.stream().map(FlashSaleReservation::getId).toList());
+            eventPublisher.publishEvent(new ProductsUpdatedEvent(new ArrayList<>(quantities.keySet())));
+        }
+        return quantities;
+    }
+}
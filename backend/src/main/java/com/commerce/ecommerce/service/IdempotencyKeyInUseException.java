@@ -0,0 +1,9 @@
+package com.commerce.ecommerce.service;
+
+// Thrown when a retry gives up waiting for the in-flight request that holds the same Idempotency-Key
+public class IdempotencyKeyInUseException extends RuntimeException {
+
+    public IdempotencyKeyInUseException(String key) {
+        super("A request with Idempotency-Key " + key + " is still in progress");
+    }
+}
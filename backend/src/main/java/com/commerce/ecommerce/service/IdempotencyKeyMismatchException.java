@@ -0,0 +1,9 @@
+package com.commerce.ecommerce.service;
+
+// Thrown when an Idempotency-Key is reused with a request other than the one it was first recorded with
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    public IdempotencyKeyMismatchException(String key) {
+        super("Idempotency-Key " + key + " was already used with a different request");
+    }
+}
@@ -0,0 +1,232 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.IdempotencyKey;
+import com.commerce.ecommerce.model.Order;
+import com.commerce.ecommerce.model.OrderItem;
+import com.commerce.ecommerce.repository.IdempotencyKeyRepository;
+import com.commerce.ecommerce.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for order creation. Completed keys are kept in a
+ * bounded LRU map in front of the idempotency_keys table, and a retry with a
+ * known key gets back the order the first request created, from the archive
+ * if it has been moved there since. Concurrent duplicates on this node wait
+ * for the in-flight request instead of racing it; across nodes the key's
+ * primary key makes the later request roll back its order and return the
+ * winner's. Each key stores a hash of its request, and reusing a key for a
+ * different request is rejected instead of answered with the first order.
+ * Failed requests are not recorded, so they can be retried with the same key.
+ */
+@Service
+public class IdempotencyService {
+
+    @Autowired
+    private IdempotencyKeyRepository keyRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Value("${app.idempotency.wait-timeout:PT30S}")
+    private Duration waitTimeout;
+
+    // Access-ordered LRU of completed keys, guarded by itself
+    private Map<String, IdempotencyKey> recent;
+
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyKey> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    // Create an order at most once per key; requestHash identifies the request (see hashRequest)
+    public Order createOnce(String key, String requestHash, Supplier<Order> create) {
+        if (key.isBlank() || key.length() > 255) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to 255 characters");
+        }
+        IdempotencyKey completed = findCompleted(key);
+        if (completed != null) {
+            return replay(completed, requestHash);
+        }
+
+        InFlight mine = new InFlight(requestHash);
+        InFlight leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            checkSameRequest(key, leader.requestHash, requestHash);
+            return loadOrder(await(key, leader.orderId));
+        }
+        try {
+            // The previous holder of the key may have finished between the lookup and putIfAbsent
+            completed = findCompleted(key);
+            Order order = completed != null ? replay(completed, requestHash) : createAndRecord(key, requestHash, create);
+            mine.orderId.complete(order.getId());
+            return order;
+        } catch (RuntimeException e) {
+            mine.orderId.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // SHA-256 over the fields a client sends when creating an order; server-assigned fields are left out
+    public static String hashRequest(Order order) {
+        StringBuilder request = new StringBuilder()
+                .append(order.getBuyerId()).append('\n')
+                .append(order.getSellerId()).append('\n')
+                .append(order.getTotalPrice()).append('\n')
+                .append(order.getShippingAddress());
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                request.append('\n').append(item.getProductId()).append(',').append(item.getQuantity())
+                        .append(',').append(item.getPrice());
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(request.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Drop expired keys from the table
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval:PT10M}")
+    public void purgeExpired() {
+        keyRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    // Create the order and record its key in one transaction
+    private Order createAndRecord(String key, String requestHash, Supplier<Order> create) {
+        try {
+            Order order = transactionTemplate.execute(status -> {
+                Order created = create.get();
+                keyRepository.saveAndFlush(new IdempotencyKey(key, created.getId(), requestHash, LocalDateTime.now().plus(ttl)));
+                return created;
+            });
+            remember(new IdempotencyKey(key, order.getId(), requestHash, LocalDateTime.now().plus(ttl)));
+            return order;
+        } catch (DataIntegrityViolationException e) {
+            // Another node recorded the key first and our order was rolled back
+            IdempotencyKey winner = findCompleted(key);
+            if (winner == null) {
+                throw e;
+            }
+            return replay(winner, requestHash);
+        }
+    }
+
+    // The order a completed key produced, provided this is a retry of the same request
+    private Order replay(IdempotencyKey completed, String requestHash) {
+        checkSameRequest(completed.getIdempotencyKey(), completed.getRequestHash(), requestHash);
+        return loadOrder(completed.getOrderId());
+    }
+
+    // Keys recorded before request hashes were kept match any request
+    private static void checkSameRequest(String key, String recordedHash, String requestHash) {
+        if (recordedHash != null && !recordedHash.equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException(key);
+        }
+    }
+
+    private IdempotencyKey findCompleted(String key) {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (recent) {
+            IdempotencyKey cached = recent.get(key);
+            if (cached != null && cached.getExpiresAt().isAfter(now)) {
+                return cached;
+            }
+        }
+        Optional<IdempotencyKey> stored = keyRepository.findById(key);
+        if (stored.isEmpty()) {
+            return null;
+        }
+        if (!stored.get().getExpiresAt().isAfter(now)) {
+            // Expired but not purged yet; free the key so it can be recorded again
+            keyRepository.delete(stored.get());
+            return null;
+        }
+        remember(stored.get());
+        return stored.get();
+    }
+
+    private void remember(IdempotencyKey key) {
+        synchronized (recent) {
+            recent.put(key.getIdempotencyKey(), key);
+        }
+    }
+
+    private Long await(String key, CompletableFuture<Long> leader) {
+        try {
+            return leader.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // The duplicate gets the same answer as the request it coalesced onto
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInUseException(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInUseException(key);
+        }
+    }
+
+    // Finished orders may have been moved to the archive since the key was recorded
+    private Order loadOrder(Long orderId) {
+        return orderRepository.findById(orderId)
+                .or(() -> orderArchiveService.findOrder(orderId))
+                .orElseThrow(() -> new IllegalArgumentException("The order created with this Idempotency-Key no longer exists"));
+    }
+
+    // Request currently creating the order for a key, for duplicates to compare against and wait on
+    private static final class InFlight {
+        final String requestHash;
+        final CompletableFuture<Long> orderId = new CompletableFuture<>();
+
+        InFlight(String requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+}
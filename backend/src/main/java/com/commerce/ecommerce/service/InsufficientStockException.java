@@ -0,0 +1,16 @@
+package com.commerce.ecommerce.service;
+
+// Thrown when an order asks for more units of a product than are in stock
+public class InsufficientStockException extends RuntimeException {
+
+    private final Long productId;
+
+    public InsufficientStockException(Long productId) {
+        super("Insufficient stock for product " + productId);
+        this.productId = productId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+}
@@ -0,0 +1,11 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.OrderStatus;
+
+// Thrown when an order is asked to move to a status its current status does not allow
+public class InvalidStatusTransitionException extends RuntimeException {
+
+    public InvalidStatusTransitionException(OrderStatus from, OrderStatus to) {
+        super("Cannot change order status from " + from + " to " + to + "; allowed: " + from.nextStatuses());
+    }
+}
@@ -0,0 +1,87 @@
+package com.commerce.ecommerce.service;
+
+/**
+ * Open-addressing long to double map for hot aggregation loops, so adding to
+ * a key costs no boxing and no entry object. Only supports adding to values,
+ * which is all the analytics accumulators need.
+ */
+final class LongDoubleHashMap {
+
+    interface EntryConsumer {
+        void accept(long key, double value);
+    }
+
+    private long[] keys;
+    private double[] values;
+    private boolean[] used;
+    private int size;
+
+    LongDoubleHashMap() {
+        this(16);
+    }
+
+    LongDoubleHashMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new double[capacity];
+        used = new boolean[capacity];
+    }
+
+    void add(long key, double delta) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] += delta;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    // Add every entry of other into this map
+    void addAll(LongDoubleHashMap other) {
+        other.forEach(this::add);
+    }
+
+    void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new long[oldKeys.length * 2];
+        values = new double[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                add(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    // Spread sequential ids over the table (murmur3 finaliser)
+    private static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
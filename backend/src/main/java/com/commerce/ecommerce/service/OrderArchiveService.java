@@ -0,0 +1,167 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.ArchivedOrder;
+import com.commerce.ecommerce.model.Order;
+import com.commerce.ecommerce.model.OrderItem;
+import com.commerce.ecommerce.model.OrderStatus;
+import com.commerce.ecommerce.repository.ArchivedOrderItemRepository;
+import com.commerce.ecommerce.repository.ArchivedOrderRepository;
+import com.commerce.ecommerce.repository.OrderItemRepository;
+import com.commerce.ecommerce.repository.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cold storage for finished orders. Delivered and cancelled orders that
+ * have not changed for min-age are moved, with their items, into the
+ * orders_archive tables in batches of batch-size, one transaction per
+ * batch, so the hot tables and their indexes only hold recent and open
+ * orders. Archived orders keep their ids and are read back through this
+ * service when a lookup misses the hot table.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    private static final List<String> FINISHED = List.of(OrderStatus.DELIVERED.name(), OrderStatus.CANCELLED.name());
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.order-archive.min-age:P90D}")
+    private Duration minAge;
+
+    @Value("${app.order-archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.order-archive.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    // Runs take minutes on a large backlog, so they stay off the shared scheduler thread
+    private final SingleRunExecutor archiveExecutor = new SingleRunExecutor("order-archive");
+
+    // Creation time of the newest archived order, null when the archive is empty.
+    // Until it is first read every hot order is assumed to possibly interleave with the archive.
+    private volatile LocalDateTime newestArchived = LocalDateTime.MAX;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshNewestArchived() {
+        newestArchived = archivedOrderRepository.findNewestCreatedAt();
+    }
+
+    // Hand the next run to the archive thread; skipped while the previous one is still going
+    @Scheduled(fixedDelayString = "${app.order-archive.interval:PT1H}",
+               initialDelayString = "${app.order-archive.initial-delay:PT5M}")
+    public void scheduleArchive() {
+        archiveExecutor.execute(this::archive);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        archiveExecutor.shutdown();
+    }
+
+    // Move finished orders into the archive, a bounded number of batches per run
+    public synchronized void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(minAge);
+        int moved = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer count = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            if (count == null || count == 0) {
+                break;
+            }
+            moved += count;
+        }
+        refreshNewestArchived();
+        if (moved > 0) {
+            log.info("Archived {} finished orders last updated before {}", moved, cutoff);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        // Finished orders take no more transitions, so the rows cannot change between copy and delete
+        List<Long> ids = orderRepository.findArchivableIds(FINISHED, cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedOrderRepository.copyFromOrders(ids, LocalDateTime.now());
+        archivedOrderItemRepository.copyFromOrderItems(ids);
+        orderItemRepository.deleteByOrderIds(ids);
+        orderRepository.deleteByIds(ids);
+        return ids.size();
+    }
+
+    // Whether an archived order could sort at or before a hot order created at this time (newest first)
+    public boolean mayReach(LocalDateTime createdAt) {
+        LocalDateTime newest = newestArchived;
+        return newest != null && !createdAt.isAfter(newest);
+    }
+
+    // An archived order with its items, detached and in the same shape as a live one
+    public Optional<Order> findOrder(Long id) {
+        return archivedOrderRepository.findById(id).map(archived -> {
+            Order order = toOrder(archived);
+            order.setItems(archivedOrderItemRepository.findByOrderIdOrderById(id).stream().map(i -> {
+                OrderItem item = new OrderItem(i.getProductId(), i.getQuantity(), i.getPrice());
+                item.setId(i.getId());
+                item.setOrder(order);
+                return item;
+            }).toList());
+            return order;
+        });
+    }
+
+    // Remove an archived order and its items; false if it is not in the archive
+    public boolean deleteOrder(Long id) {
+        Boolean deleted = transactionTemplate.execute(status -> {
+            if (!archivedOrderRepository.existsById(id)) {
+                return false;
+            }
+            archivedOrderItemRepository.deleteByOrderId(id);
+            archivedOrderRepository.deleteById(id);
+            return true;
+        });
+        return Boolean.TRUE.equals(deleted);
+    }
+
+    // Detached Order with the archived columns, without items
+    public static Order toOrder(ArchivedOrder archived) {
+        Order order = new Order();
+        order.setId(archived.getId());
+        order.setBuyerId(archived.getBuyerId());
+        order.setSellerId(archived.getSellerId());
+        order.setTotalPrice(archived.getTotalPrice());
+        order.setStatus(archived.getStatus());
+        order.setShippingAddress(archived.getShippingAddress());
+        order.setCreatedAt(archived.getCreatedAt());
+        order.setUpdatedAt(archived.getUpdatedAt());
+        return order;
+    }
+}
@@ -0,0 +1,21 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.Order;
+import com.commerce.ecommerce.model.OrderOutboxEvent;
+
+/**
+ * Side effect of an order lifecycle event, run by OrderOutboxDispatcher in
+ * the same transaction that marks the event processed. A listener that
+ * throws rolls the whole delivery back and the event is retried, so
+ * listeners must only write to the database or defer other work until
+ * commit.
+ */
+public interface OrderEventListener {
+
+    // Called before each dispatch round reads its events, outside any delivery; a failure skips the round
+    default void beforeDispatch() {
+    }
+
+    // order is null if it was deleted before the event was dispatched
+    void onOrderEvent(OrderOutboxEvent event, Order order);
+}
@@ -0,0 +1,95 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.Order;
+import com.commerce.ecommerce.model.OrderOutboxEvent;
+import com.commerce.ecommerce.repository.OrderOutboxRepository;
+import com.commerce.ecommerce.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Drains the order outbox to the OrderEventListener beans in the
+ * background. Each event is delivered in its own transaction together with
+ * its processed mark, so listener writes happen exactly once. A failing
+ * event is retried on later polls up to max-attempts, and later events of
+ * the same order wait behind it so listeners see each order's events in
+ * order.
+ */
+@Component
+public class OrderOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderOutboxDispatcher.class);
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private List<OrderEventListener> listeners;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.order-outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.order-outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.order-outbox.retention:P7D}")
+    private Duration retention;
+
+    @Scheduled(fixedDelayString = "${app.order-outbox.poll-interval:PT0.5S}")
+    public synchronized void dispatch() {
+        try {
+            listeners.forEach(OrderEventListener::beforeDispatch);
+        } catch (RuntimeException e) {
+            log.warn("Order outbox listener not ready, dispatch skipped: {}", e.toString());
+            return;
+        }
+        List<OrderOutboxEvent> batch = outboxRepository.findPending(maxAttempts, PageRequest.of(0, batchSize));
+        Set<Long> blockedOrders = new HashSet<>();
+        for (OrderOutboxEvent event : batch) {
+            if (blockedOrders.contains(event.getOrderId())) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> deliver(event));
+            } catch (RuntimeException e) {
+                blockedOrders.add(event.getOrderId());
+                log.warn("Order outbox event {} ({} of order {}) failed: {}", event.getId(), event.getEventType(),
+                        event.getOrderId(), e.toString());
+                String error = e.toString().length() > 1000 ? e.toString().substring(0, 1000) : e.toString();
+                transactionTemplate.executeWithoutResult(status -> outboxRepository.recordFailure(event.getId(), error));
+            }
+        }
+    }
+
+    // Drop events that were processed longer ago than the retention period
+    @Scheduled(fixedDelayString = "${app.order-outbox.cleanup-interval:PT1H}")
+    public void purgeProcessed() {
+        outboxRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+    }
+
+    private void deliver(OrderOutboxEvent event) {
+        Order order = orderRepository.findById(event.getOrderId()).orElse(null);
+        for (OrderEventListener listener : listeners) {
+            listener.onOrderEvent(event, order);
+        }
+        outboxRepository.markProcessed(event.getId(), LocalDateTime.now());
+    }
+}
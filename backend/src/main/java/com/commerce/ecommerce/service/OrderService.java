@@ -1,15 +1,42 @@
 package com.commerce.ecommerce.service;
 
+import com.commerce.ecommerce.config.PaginationProperties;
+import com.commerce.ecommerce.dto.CursorPage;
+import com.commerce.ecommerce.dto.DataVersion;
+import com.commerce.ecommerce.dto.KeysetCursor;
+import com.commerce.ecommerce.dto.OrderDTO;
+import com.commerce.ecommerce.dto.OrderItemDTO;
+import com.commerce.ecommerce.model.ArchivedOrder;
 import com.commerce.ecommerce.model.Order;
+import com.commerce.ecommerce.model.OrderItem;
+import com.commerce.ecommerce.model.OrderOutboxEvent;
+import com.commerce.ecommerce.model.OrderStatus;
 import com.commerce.ecommerce.model.User;
+import com.commerce.ecommerce.repository.ArchivedOrderItemRepository;
+import com.commerce.ecommerce.repository.ArchivedOrderRepository;
+import com.commerce.ecommerce.repository.OrderItemRepository;
+import com.commerce.ecommerce.repository.OrderOutboxRepository;
 import com.commerce.ecommerce.repository.OrderRepository;
+import com.commerce.ecommerce.repository.ProductRepository;
 import com.commerce.ecommerce.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
@@ -17,15 +44,88 @@ public class OrderService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
     @Autowired
     private UserRepository userRepository;
 
-    // Create order
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PaginationProperties pagination;
+
+    // Create order, reserving stock for every item in the same transaction
+    @Transactional
     public Order createOrder(Order order) {
-        order.setCreatedAt(LocalDateTime.now());
-        order.setUpdatedAt(LocalDateTime.now());
-        order.setStatus("PENDING");
-        return orderRepository.save(order);
+        LocalDateTime now = LocalDateTime.now();
+        order.setCreatedAt(now);
+        order.setUpdatedAt(now);
+        order.setStatus(OrderStatus.PENDING.name());
+        if (order.getItems() != null) {
+            order.getItems().forEach(item -> item.setOrder(order));
+        }
+        Order saved = orderRepository.save(order);
+        if (saved.getItems() != null && !saved.getItems().isEmpty()) {
+            reserveStock(saved.getId(), saved.getItems(), now);
+        }
+        outboxRepository.save(outboxEvent(saved, "CREATED", null, OrderStatus.PENDING));
+        return saved;
+    }
+
+    // Lifecycle event carrying the order's amounts as of this transaction
+    private OrderOutboxEvent outboxEvent(Order order, String eventType, OrderStatus from, OrderStatus to) {
+        long units = order.getItems() == null ? 0
+                : order.getItems().stream().mapToLong(OrderItem::getQuantity).sum();
+        return new OrderOutboxEvent(order.getId(), eventType, from, to, order.getTotalPrice(), units);
+    }
+
+    // Products on flash sale are granted from memory; the rest get a conditional decrement,
+    // one statement per product. Rows are updated in product id order so two orders for the
+    // same products cannot deadlock; any shortfall rolls back the order.
+    private void reserveStock(Long orderId, List<OrderItem> items, LocalDateTime now) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItem item : items) {
+            if (item.getProductId() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Order items need a product and a positive quantity");
+            }
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        List<Long> reservedInDatabase = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> {
+            switch (flashSaleService.reserve(orderId, productId, quantity)) {
+                case RESERVED -> { }
+                case SOLD_OUT -> throw new InsufficientStockException(productId);
+                case NOT_ON_SALE -> {
+                    if (productRepository.reserveStock(productId, quantity, now) == 0) {
+                        throw new InsufficientStockException(productId);
+                    }
+                    reservedInDatabase.add(productId);
+                }
+            }
+        });
+        if (!reservedInDatabase.isEmpty()) {
+            eventPublisher.publishEvent(new ProductsUpdatedEvent(reservedInDatabase));
+        }
     }
 
     // Get orders for buyer
@@ -38,30 +138,166 @@ public class OrderService {
         return orderRepository.findBySellerIdOrderByCreatedAtDesc(sellerId);
     }
 
-    // Get order by ID
+    // Buyer's order history with items, live orders and archived ones, newest first
+    public List<OrderDTO> getBuyerOrderHistory(Long buyerId) {
+        return merge(toDTOs(orderRepository.findByBuyerIdOrderByCreatedAtDesc(buyerId)),
+                archivedToDTOs(archivedOrderRepository.findByBuyerIdOrderByCreatedAtDescIdDesc(buyerId)), Integer.MAX_VALUE);
+    }
+
+    // One page of a buyer's order history, newest first
+    public CursorPage<OrderDTO> getBuyerOrdersPage(Long buyerId, String cursor, Integer limit) {
+        return historyPage(cursor, limit,
+                (after, request) -> after == null ? orderRepository.findBuyerFirstPage(buyerId, request)
+                        : orderRepository.findBuyerPageAfter(buyerId, after.getCreatedAt(), after.getId(), request),
+                (after, request) -> after == null ? archivedOrderRepository.findBuyerFirstPage(buyerId, request)
+                        : archivedOrderRepository.findBuyerPageAfter(buyerId, after.getCreatedAt(), after.getId(), request));
+    }
+
+    // Seller's order history with items, live orders and archived ones, newest first
+    public List<OrderDTO> getSellerOrderHistory(Long sellerId) {
+        return merge(toDTOs(orderRepository.findBySellerIdOrderByCreatedAtDesc(sellerId)),
+                archivedToDTOs(archivedOrderRepository.findBySellerIdOrderByCreatedAtDescIdDesc(sellerId)), Integer.MAX_VALUE);
+    }
+
+    // One page of a seller's order history, newest first
+    public CursorPage<OrderDTO> getSellerOrdersPage(Long sellerId, String cursor, Integer limit) {
+        return historyPage(cursor, limit,
+                (after, request) -> after == null ? orderRepository.findSellerFirstPage(sellerId, request)
+                        : orderRepository.findSellerPageAfter(sellerId, after.getCreatedAt(), after.getId(), request),
+                (after, request) -> after == null ? archivedOrderRepository.findSellerFirstPage(sellerId, request)
+                        : archivedOrderRepository.findSellerPageAfter(sellerId, after.getCreatedAt(), after.getId(), request));
+    }
+
+    // Pages come from the hot table alone while every row on them is newer than anything archived;
+    // only a page that reaches back to the archive's time range also reads the archive and merges the two.
+    // A null cursor passed to the page functions means the first page.
+    private CursorPage<OrderDTO> historyPage(String cursor, Integer limit,
+                                             BiFunction<KeysetCursor, Pageable, List<Order>> hotPage,
+                                             BiFunction<KeysetCursor, Pageable, List<ArchivedOrder>> archivedPage) {
+        int size = pagination.resolve(limit);
+        PageRequest request = PageRequest.of(0, size + 1);
+        KeysetCursor after = cursor == null ? null : KeysetCursor.decode(cursor);
+        List<Order> fetched = hotPage.apply(after, request);
+        List<OrderDTO> page = toDTOs(fetched);
+        // A short hot page has run out of live orders, so anything archived past the cursor belongs on it
+        LocalDateTime reach = fetched.size() > size ? fetched.get(size).getCreatedAt() : LocalDateTime.MIN;
+        if (orderArchiveService.mayReach(reach)) {
+            page = merge(page, archivedToDTOs(archivedPage.apply(after, request)), size + 1);
+        }
+        return CursorPage.of(page, size, o -> new KeysetCursor(o.getCreatedAt(), o.getId()));
+    }
+
+    // Merge two newest-first lists, keeping at most limit entries
+    private List<OrderDTO> merge(List<OrderDTO> hot, List<OrderDTO> archived, int limit) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<OrderDTO> merged = new ArrayList<>(hot);
+        merged.addAll(archived);
+        merged.sort(Comparator.comparing(OrderDTO::getCreatedAt).thenComparing(OrderDTO::getId).reversed());
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    // Map orders to DTOs, loading the items of all of them with one query instead of one per order
+    private List<OrderDTO> toDTOs(List<Order> orders) {
+        return toDTOs(orders, orderItemRepository::findItemsByOrderIds);
+    }
+
+    private List<OrderDTO> archivedToDTOs(List<ArchivedOrder> archived) {
+        return toDTOs(archived.stream().map(OrderArchiveService::toOrder).toList(),
+                archivedOrderItemRepository::findItemsByOrderIds);
+    }
+
+    private List<OrderDTO> toDTOs(List<Order> orders, Function<Collection<Long>, List<OrderItemDTO>> itemsOf) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<OrderItemDTO>> items = itemsOf
+                .apply(orders.stream().map(Order::getId).toList()).stream()
+                .collect(Collectors.groupingBy(OrderItemDTO::getOrderId));
+        return orders.stream().map(o -> {
+            OrderDTO dto = new OrderDTO();
+            dto.setId(o.getId());
+            dto.setBuyerId(o.getBuyerId());
+            dto.setSellerId(o.getSellerId());
+            dto.setTotalPrice(o.getTotalPrice());
+            dto.setStatus(o.getStatus());
+            dto.setShippingAddress(o.getShippingAddress());
+            dto.setItems(items.getOrDefault(o.getId(), List.of()));
+            dto.setCreatedAt(o.getCreatedAt());
+            dto.setUpdatedAt(o.getUpdatedAt());
+            return dto;
+        }).toList();
+    }
+
+    // Get order by ID, falling back to the archive for finished orders moved out of the hot table
     public Optional<Order> getOrderById(Long id) {
-        return orderRepository.findById(id);
+        Optional<Order> order = orderRepository.findById(id);
+        return order.isPresent() ? order : orderArchiveService.findOrder(id);
     }
 
-    // Update order status
+    // Move an order to a new status if its lifecycle allows it; follow-up work is queued in the outbox
+    @Transactional
     public Order updateOrderStatus(Long orderId, String status) {
-        Optional<Order> order = orderRepository.findById(orderId);
+        OrderStatus next = OrderStatus.parse(status);
+        Optional<Order> order = orderRepository.findByIdForUpdate(orderId);
         if (order.isPresent()) {
             Order o = order.get();
-            o.setStatus(status);
+            OrderStatus current = OrderStatus.parse(o.getStatus());
+            if (!current.canTransitionTo(next)) {
+                throw new InvalidStatusTransitionException(current, next);
+            }
+            o.setStatus(next.name());
             o.setUpdatedAt(LocalDateTime.now());
+            outboxRepository.save(outboxEvent(o, "STATUS_CHANGED", current, next));
             return orderRepository.save(o);
         }
+        // Archived orders are finished, so any transition out of them is rejected
+        Optional<Order> archived = orderArchiveService.findOrder(orderId);
+        if (archived.isPresent()) {
+            throw new InvalidStatusTransitionException(OrderStatus.parse(archived.get().getStatus()), next);
+        }
         return null;
     }
 
-    // Delete order
+    // Delete order, wherever it is stored
     public void deleteOrder(Long orderId) {
-        orderRepository.deleteById(orderId);
+        if (orderRepository.existsById(orderId)) {
+            orderRepository.deleteById(orderId);
+        } else {
+            orderArchiveService.deleteOrder(orderId);
+        }
     }
 
     // Get all orders
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
+
+    // Get one page of all orders, newest first
+    public CursorPage<Order> getOrdersPage(String cursor, Integer limit) {
+        int size = pagination.resolve(limit);
+        PageRequest request = PageRequest.of(0, size + 1);
+        List<Order> fetched;
+        if (cursor == null) {
+            fetched = orderRepository.findFirstPage(request);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            fetched = orderRepository.findPageAfter(after.getCreatedAt(), after.getId(), request);
+        }
+        return CursorPage.of(fetched, size, o -> new KeysetCursor(o.getCreatedAt(), o.getId()));
+    }
+
+    // Versions of the order listings, used for conditional GET
+    public DataVersion getOrdersVersion() {
+        return orderRepository.findVersion();
+    }
+
+    public DataVersion getBuyerOrdersVersion(Long buyerId) {
+        return orderRepository.findVersionByBuyerId(buyerId);
+    }
+
+    public DataVersion getSellerOrdersVersion(Long sellerId) {
+        return orderRepository.findVersionBySellerId(sellerId);
+    }
 }
@@ -0,0 +1,79 @@
+package com.commerce.ecommerce.service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Sorted set of document ids backed by a growable int array, so its size
+ * follows the number of documents rather than the largest id (a BitSet
+ * per term would cost maxId / 8 bytes even for a term used once). Ids
+ * mostly arrive in ascending order while an index is built, which makes
+ * adds appends. Not thread safe; the owning index guards it.
+ */
+final class PostingList {
+
+    private int[] docs = new int[2];
+    private int size;
+
+    // Returns false if the id was already present
+    boolean add(int doc) {
+        if (size > 0 && docs[size - 1] < doc) {
+            ensureCapacity();
+            docs[size++] = doc;
+            return true;
+        }
+        int at = Arrays.binarySearch(docs, 0, size, doc);
+        if (at >= 0) {
+            return false;
+        }
+        int insert = -at - 1;
+        ensureCapacity();
+        System.arraycopy(docs, insert, docs, insert + 1, size - insert);
+        docs[insert] = doc;
+        size++;
+        return true;
+    }
+
+    // Returns false if the id was not present
+    boolean remove(int doc) {
+        int at = Arrays.binarySearch(docs, 0, size, doc);
+        if (at < 0) {
+            return false;
+        }
+        System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+        size--;
+        if (docs.length > 8 && size < docs.length / 4) {
+            docs = Arrays.copyOf(docs, docs.length / 2);
+        }
+        return true;
+    }
+
+    boolean contains(int doc) {
+        return Arrays.binarySearch(docs, 0, size, doc) >= 0;
+    }
+
+    int get(int index) {
+        return docs[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Set every id of this list in the target
+    void orInto(BitSet target) {
+        for (int i = 0; i < size; i++) {
+            target.set(docs[i]);
+        }
+    }
+
+    private void ensureCapacity() {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, docs.length * 2);
+        }
+    }
+}
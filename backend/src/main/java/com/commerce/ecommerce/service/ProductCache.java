@@ -0,0 +1,151 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Read-through cache for single product lookups, bounded by entry count and
+ * by time to live. Hits take no lock: entries live in a ConcurrentHashMap
+ * and only note when they were last read. When a load pushes the cache over
+ * its size, a handful of entries is sampled and the least recently read one
+ * is evicted, an approximation of LRU that never reorders anything on the
+ * read path. Writers must call invalidate() after changing a product.
+ */
+@Component
+public class ProductCache {
+
+    // Entries looked at per eviction; more is closer to true LRU but slower to insert
+    private static final int EVICTION_SAMPLE = 8;
+    // A hit only records its time when the last one is older than this, so a hot entry isn't rewritten on every read
+    private static final long ACCESS_GRANULARITY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    // Only inserts evict, one at a time, walking the map from where the previous sample stopped
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private Iterator<Map.Entry<Long, Entry>> evictionCursor;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ProductCache(@Value("${app.product-cache.max-entries:10000}") int maxEntries,
+                        @Value("${app.product-cache.ttl:PT5M}") Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    // Return the cached product or load it, caching only products that exist
+    public Optional<Product> get(Long id, Function<Long, Optional<Product>> loader) {
+        Entry entry = entries.get(id);
+        if (entry != null) {
+            long now = System.nanoTime();
+            if (now - entry.loadedAt < ttlNanos) {
+                if (now - entry.lastAccess > ACCESS_GRANULARITY_NANOS) {
+                    entry.lastAccess = now;
+                }
+                hits.incrementAndGet();
+                return Optional.of(entry.product);
+            }
+            if (entries.remove(id, entry)) {
+                evictions.incrementAndGet();
+            }
+        }
+
+        long loadGeneration = generation.get();
+        misses.incrementAndGet();
+        Optional<Product> loaded = loader.apply(id);
+        loaded.ifPresent(product -> {
+            Entry fresh = new Entry(product, System.nanoTime());
+            entries.put(id, fresh);
+            // An invalidation since the load began may have run before the put; take the entry back out.
+            // One that runs after the put removes it itself.
+            if (generation.get() != loadGeneration) {
+                entries.remove(id, fresh);
+            } else if (entries.size() > maxEntries) {
+                evict();
+            }
+        });
+        return loaded;
+    }
+
+    public void invalidate(Long id) {
+        generation.incrementAndGet();
+        entries.remove(id);
+        invalidations.incrementAndGet();
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", (long) entries.size());
+        stats.put("maxEntries", (long) maxEntries);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    // Evict the least recently read of a few sampled entries until the cache is back within its size
+    private void evict() {
+        evictionLock.lock();
+        try {
+            while (entries.size() > maxEntries) {
+                Map.Entry<Long, Entry> oldest = null;
+                for (int i = 0; i < EVICTION_SAMPLE; i++) {
+                    if (evictionCursor == null || !evictionCursor.hasNext()) {
+                        evictionCursor = entries.entrySet().iterator();
+                        if (!evictionCursor.hasNext()) {
+                            return;
+                        }
+                    }
+                    Map.Entry<Long, Entry> candidate = evictionCursor.next();
+                    if (oldest == null || candidate.getValue().lastAccess < oldest.getValue().lastAccess) {
+                        oldest = candidate;
+                    }
+                }
+                if (entries.remove(oldest.getKey(), oldest.getValue())) {
+                    evictions.incrementAndGet();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Entry {
+        final Product product;
+        final long loadedAt;
+        volatile long lastAccess;
+
+        Entry(Product product, long loadedAt) {
+            this.product = product;
+            this.loadedAt = loadedAt;
+            this.lastAccess = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.dto.ProductChangeDTO;
+import com.commerce.ecommerce.dto.ProductChangesResponse;
+import com.commerce.ecommerce.model.Product;
+import com.commerce.ecommerce.model.ProductChange;
+import com.commerce.ecommerce.repository.ProductChangeRepository;
+import com.commerce.ecommerce.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Change feed over the product catalog. Every write is appended to the
+ * product_changes log (deletes as tombstones) in the writer's own
+ * transaction, and once that commits to a bounded ring buffer of recent
+ * changes, so pollers that are close to the head are answered from memory
+ * and only lagging clients read the log. Sequences come from the log's
+ * identity column and can commit out of order, so the feed only serves up
+ * to a watermark below which every sequence has committed or rolled back;
+ * a poller never moves past a change that is still to appear. The lock
+ * here guards only that in-memory bookkeeping and is never held across a
+ * database call.
+ */
+@Component
+public class ProductChangeFeed {
+
+    @Autowired
+    private ProductChangeRepository changeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${app.product-changes.buffer-size:1024}")
+    private int bufferSize;
+
+    @Value("${app.product-changes.max-batch:500}")
+    private int maxBatch;
+
+    private final Object lock = new Object();
+
+    // Committed changes in sequence order
+    private ProductChangeDTO[] ring;
+    private int head;   // next slot to write
+    private int count;
+
+    // Every committed change with a sequence greater than this is in the ring
+    private long coveredFrom;
+
+    // Watermark: every sequence up to here has committed or rolled back
+    private long latestSequence;
+
+    // Sequences inserted by transactions that have not finished yet
+    private final TreeSet<Long> pending = new TreeSet<>();
+
+    // Writers whose insert has not returned yet, keyed by the highest sequence assigned when they
+    // started; theirs will be above it, so the watermark cannot pass the lowest of these keys
+    private final TreeMap<Long, Integer> unassigned = new TreeMap<>();
+    private long highestAssigned;
+    private long highestFinished;
+
+    @PostConstruct
+    void init() {
+        ring = new ProductChangeDTO[bufferSize];
+        latestSequence = changeRepository.findLatestSequence();
+        coveredFrom = latestSequence;
+        highestAssigned = latestSequence;
+        highestFinished = latestSequence;
+    }
+
+    // Record a created/updated product together with the snapshot served to hot pollers
+    public void recordUpsert(String type, Product product) {
+        record(type, product.getId(), product);
+    }
+
+    // Record a tombstone for a deleted product
+    public void recordDelete(Long productId) {
+        record("DELETED", productId, null);
+    }
+
+    public long getLatestSequence() {
+        synchronized (lock) {
+            return latestSequence;
+        }
+    }
+
+    // Changes after the given sequence, collapsed to the latest change per product
+    public ProductChangesResponse changesSince(long since) {
+        long watermark;
+        synchronized (lock) {
+            if (since >= coveredFrom) {
+                return fromRing(since);
+            }
+            watermark = latestSequence;
+        }
+        return fromLog(since, watermark);
+    }
+
+    // Insert the log row in the caller's transaction (if any) and publish it to the ring once it commits
+    private void record(String type, Long productId, Product snapshot) {
+        long floor;
+        synchronized (lock) {
+            floor = highestAssigned;
+            unassigned.merge(floor, 1, Integer::sum);
+        }
+        ProductChange change;
+        try {
+            change = changeRepository.save(new ProductChange(productId, type));
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                releaseFloor(floor);
+                advanceWatermark();
+            }
+            throw e;
+        }
+        long sequence = change.getId();
+        synchronized (lock) {
+            // Pending before the floor goes, so the watermark never passes this sequence in between
+            pending.add(sequence);
+            highestAssigned = Math.max(highestAssigned, sequence);
+            releaseFloor(floor);
+            advanceWatermark();
+        }
+        ProductChangeDTO entry = new ProductChangeDTO(sequence, type, productId, snapshot);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    finish(entry, status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            finish(entry, true);
+        }
+    }
+
+    private void finish(ProductChangeDTO entry, boolean committed) {
+        synchronized (lock) {
+            pending.remove(entry.getSequence());
+            highestFinished = Math.max(highestFinished, entry.getSequence());
+            if (committed) {
+                addToRing(entry);
+            }
+            advanceWatermark();
+        }
+    }
+
+    // Caller holds the lock
+    private void releaseFloor(long floor) {
+        unassigned.computeIfPresent(floor, (key, writers) -> writers == 1 ? null : writers - 1);
+    }
+
+    // Caller holds the lock
+    private void advanceWatermark() {
+        long safe = highestFinished;
+        if (!pending.isEmpty()) {
+            safe = Math.min(safe, pending.first() - 1);
+        }
+        if (!unassigned.isEmpty()) {
+            safe = Math.min(safe, unassigned.firstKey());
+        }
+        latestSequence = Math.max(latestSequence, safe);
+    }
+
+    // Caller holds the lock. Entries mostly arrive in order; a late commit is moved back into place.
+    private void addToRing(ProductChangeDTO entry) {
+        if (count == ring.length) {
+            int oldest = (head - count + ring.length) % ring.length;
+            coveredFrom = ring[oldest].getSequence();
+            ring[oldest] = null;
+            count--;
+        }
+        if (entry.getSequence() <= coveredFrom) {
+            // Older than everything the ring still covers; the log serves it
+            return;
+        }
+        int oldest = (head - count + ring.length) % ring.length;
+        int position = head;
+        ring[position] = entry;
+        head = (head + 1) % ring.length;
+        count++;
+        while (position != oldest) {
+            int previous = (position - 1 + ring.length) % ring.length;
+            if (ring[previous].getSequence() < entry.getSequence()) {
+                break;
+            }
+            ring[position] = ring[previous];
+            ring[previous] = entry;
+            position = previous;
+        }
+    }
+
+    // Caller holds the lock
+    private ProductChangesResponse fromRing(long since) {
+        List<ProductChangeDTO> changes = new ArrayList<>();
+        boolean hasMore = false;
+        int oldest = (head - count + ring.length) % ring.length;
+        for (int i = 0; i < count; i++) {
+            ProductChangeDTO entry = ring[(oldest + i) % ring.length];
+            if (entry.getSequence() <= since) {
+                continue;
+            }
+            if (entry.getSequence() > latestSequence) {
+                break;
+            }
+            if (changes.size() == maxBatch) {
+                hasMore = true;
+                break;
+            }
+            changes.add(entry);
+        }
+        long latest = changes.isEmpty() ? latestSequence : changes.get(changes.size() - 1).getSequence();
+        return new ProductChangesResponse(collapse(changes), latest, hasMore);
+    }
+
+    private ProductChangesResponse fromLog(long since, long watermark) {
+        List<ProductChange> rows = changeRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(since, watermark,
+                PageRequest.of(0, maxBatch));
+        List<Long> liveIds = rows.stream()
+                .filter(c -> !"DELETED".equals(c.getChangeType()))
+                .map(ProductChange::getProductId)
+                .distinct()
+                .toList();
+        Map<Long, Product> products = productRepository.findAllById(liveIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<ProductChangeDTO> changes = new ArrayList<>();
+        for (ProductChange row : rows) {
+            Product product = products.get(row.getProductId());
+            // A product missing from the table was deleted after this change; report the tombstone
+            String type = product == null ? "DELETED" : row.getChangeType();
+            changes.add(new ProductChangeDTO(row.getId(), type, row.getProductId(), product));
+        }
+        // A short batch covers everything up to the watermark, gaps left by rolled back writes included
+        boolean hasMore = rows.size() == maxBatch;
+        long latest = hasMore ? rows.get(rows.size() - 1).getId() : Math.max(since, watermark);
+        return new ProductChangesResponse(collapse(changes), latest, hasMore);
+    }
+
+    // Keep only the last change per product, ordered by sequence
+    private List<ProductChangeDTO> collapse(List<ProductChangeDTO> changes) {
+        Map<Long, ProductChangeDTO> latest = new LinkedHashMap<>();
+        for (ProductChangeDTO change : changes) {
+            latest.remove(change.getProductId());
+            latest.put(change.getProductId(), change);
+        }
+        return new ArrayList<>(latest.values());
+    }
+}
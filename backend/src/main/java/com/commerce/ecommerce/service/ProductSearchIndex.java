@@ -0,0 +1,518 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name, description and category.
+ * Each term's posting list is a sorted array of product ids, sized by the
+ * products that use the term. A query term matches every indexed term that
+ * contains it, as the substring search this index replaced did, with the
+ * vocabulary trigrams narrowing down which terms to check. The matching
+ * postings are OR'ed into a per-query bitset, so multi-term queries are
+ * bitset intersections/unions and the ACTIVE/in-stock filter is a single
+ * AND with the availability bitmap. Bitsets per category, price band and
+ * rating band back faceted search; there are only a handful of those.
+ */
+@Component
+public class ProductSearchIndex {
+
+    // Lower bounds of the price and rating bands; the last band is open ended
+    public static final double[] PRICE_BANDS = {0, 500, 1000, 2500, 5000, 10000};
+    public static final double[] RATING_BANDS = {0, 1, 2, 3, 4};
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> product ids containing the term
+    private final Map<String, PostingList> postings = new HashMap<>();
+
+    // vocabulary trigrams for substring and typo tolerant lookups
+    private final TrigramIndex trigrams = new TrigramIndex();
+
+    // product id -> terms it was indexed under, needed to unindex on update/delete
+    private final Map<Integer, String[]> documentTerms = new HashMap<>();
+
+    // products that are ACTIVE, and the subset of those with stock > 0
+    private final BitSet active = new BitSet();
+    private final BitSet available = new BitSet();
+
+    // Facets: exact category value, price band and rating band
+    private final TreeMap<String, BitSet> categories = new TreeMap<>();
+    private final Map<Integer, String> documentCategory = new HashMap<>();
+    private final BitSet[] priceBands = newBands(PRICE_BANDS.length);
+    private final BitSet[] ratingBands = newBands(RATING_BANDS.length);
+    private double[] prices = new double[1024];
+    private double[] ratings = new double[1024];
+
+    // Index or re-index a product
+    public void index(Product product) {
+        if (product.getId() == null) {
+            return;
+        }
+        int doc = toDoc(product.getId());
+        String[] terms = tokenize(product.getName(), product.getDescription(), product.getCategory());
+
+        lock.writeLock().lock();
+        try {
+            unindex(doc);
+            for (String term : terms) {
+                postings.computeIfAbsent(term, t -> {
+                    trigrams.add(t);
+                    return new PostingList();
+                }).add(doc);
+            }
+            documentTerms.put(doc, terms);
+            active.set(doc, "ACTIVE".equals(product.getStatus()));
+            available.set(doc, isAvailable(product));
+
+            if (product.getCategory() != null) {
+                categories.computeIfAbsent(product.getCategory(), c -> new BitSet()).set(doc);
+                documentCategory.put(doc, product.getCategory());
+            }
+            ensureCapacity(doc);
+            prices[doc] = product.getPrice();
+            ratings[doc] = product.getRating();
+            priceBands[band(PRICE_BANDS, product.getPrice())].set(doc);
+            ratingBands[band(RATING_BANDS, product.getRating())].set(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Remove a product from the index
+    public void remove(Long productId) {
+        int doc = toDoc(productId);
+        lock.writeLock().lock();
+        try {
+            unindex(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Drop every indexed product
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            trigrams.clear();
+            documentTerms.clear();
+            active.clear();
+            available.clear();
+            categories.clear();
+            documentCategory.clear();
+            Arrays.stream(priceBands).forEach(BitSet::clear);
+            Arrays.stream(ratingBands).forEach(BitSet::clear);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of up to limit available products matching the keyword, in
+     * ascending id order. A query term matches the indexed terms that contain
+     * it, so "phones" finds "headphones"; with matchAll every query term has
+     * to match, otherwise any one. Unlike a plain substring match the terms
+     * of a multi-word keyword need not be adjacent in the product text.
+     */
+    public List<Long> search(String keyword, boolean matchAll, int limit) {
+        String[] queryTerms = tokenize(keyword);
+        if (queryTerms.length == 0) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet result = keywordMatches(queryTerms, matchAll);
+            result.and(available);
+            return toIds(result, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Typo tolerant search over available products. Each query term matches
+     * up to maxCandidates indexed terms that contain it (terms under three
+     * characters only match exactly) plus, via the trigram index, up to
+     * maxCandidates terms within a small edit distance of it; every query
+     * term has to match. Ids come back best match first, scored by the summed
+     * term similarity. The work is bounded: candidates are seeded from the
+     * most selective query term, best matching terms first, and at most
+     * maxHits products are scored, so a very broad query returns the best
+     * matches among the first maxHits rather than the whole catalog.
+     */
+    public List<Long> searchFuzzy(String keyword, int maxCandidates, int maxHits, int limit) {
+        String[] queryTerms = tokenize(keyword);
+        if (queryTerms.length == 0) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Indexed terms each query term matches, most similar first
+            List<List<Map.Entry<String, Float>>> matched = new ArrayList<>();
+            int seed = 0;
+            long seedPostings = Long.MAX_VALUE;
+            for (String queryTerm : queryTerms) {
+                Map<String, Float> terms = new HashMap<>();
+                if (queryTerm.length() >= 3) {
+                    trigrams.termsContaining(queryTerm, maxCandidates).forEach(term -> terms.put(term, 1f));
+                } else if (postings.containsKey(queryTerm)) {
+                    terms.put(queryTerm, 1f);
+                }
+                trigrams.similarTerms(queryTerm, maxCandidates).forEach((term, score) -> terms.merge(term, score, Math::max));
+                if (terms.isEmpty()) {
+                    return new ArrayList<>();
+                }
+                List<Map.Entry<String, Float>> ranked = new ArrayList<>(terms.entrySet());
+                ranked.sort(Map.Entry.<String, Float>comparingByValue().reversed());
+                long total = ranked.stream().mapToLong(e -> postings.get(e.getKey()).size()).sum();
+                if (total < seedPostings) {
+                    seed = matched.size();
+                    seedPostings = total;
+                }
+                matched.add(ranked);
+            }
+
+            // Seed from the most selective term; terms come best first, so a product's first score is its best
+            Map<Integer, Float> scores = new HashMap<>();
+            seeding:
+            for (Map.Entry<String, Float> term : matched.get(seed)) {
+                PostingList docs = postings.get(term.getKey());
+                for (int i = 0; i < docs.size(); i++) {
+                    int doc = docs.get(i);
+                    if (available.get(doc)) {
+                        scores.putIfAbsent(doc, term.getValue());
+                        if (scores.size() >= maxHits) {
+                            break seeding;
+                        }
+                    }
+                }
+            }
+
+            // Every other query term must match the seeded products too
+            for (int t = 0; t < matched.size() && !scores.isEmpty(); t++) {
+                if (t == seed) {
+                    continue;
+                }
+                Iterator<Map.Entry<Integer, Float>> candidates = scores.entrySet().iterator();
+                while (candidates.hasNext()) {
+                    Map.Entry<Integer, Float> candidate = candidates.next();
+                    Float best = null;
+                    for (Map.Entry<String, Float> term : matched.get(t)) {
+                        if (postings.get(term.getKey()).contains(candidate.getKey())) {
+                            best = term.getValue();
+                            break;
+                        }
+                    }
+                    if (best == null) {
+                        candidates.remove();
+                    } else {
+                        candidate.setValue(candidate.getValue() + best);
+                    }
+                }
+            }
+
+            List<Map.Entry<Integer, Float>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Integer, Float>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < ranked.size() && i < limit; i++) {
+                ids.add((long) ranked.get(i).getKey());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Faceted search over ACTIVE products. Every filter is optional. Facet
+     * counts for one dimension are taken with all other filters applied but
+     * not its own, so a client can show how many products each alternative
+     * value would return.
+     */
+    public FacetResult facetedSearch(String keyword, String category, Double minPrice, Double maxPrice,
+                                     Double minRating, boolean inStock, int limit) {
+        String[] queryTerms = tokenize(keyword);
+
+        lock.readLock().lock();
+        try {
+            BitSet base = (BitSet) (inStock ? available : active).clone();
+            if (queryTerms.length > 0) {
+                base.and(keywordMatches(queryTerms, true));
+            }
+            BitSet categoryFilter = null;
+            if (category != null) {
+                categoryFilter = categories.getOrDefault(category, new BitSet());
+            }
+            BitSet priceFilter = rangeFilter(priceBands, PRICE_BANDS, prices, minPrice, maxPrice);
+            BitSet ratingFilter = rangeFilter(ratingBands, RATING_BANDS, ratings, minRating, null);
+
+            Map<String, Integer> categoryCounts = new TreeMap<>();
+            BitSet forCategories = intersect(base, priceFilter, ratingFilter);
+            for (Map.Entry<String, BitSet> entry : categories.entrySet()) {
+                int count = countAnd(forCategories, entry.getValue());
+                if (count > 0) {
+                    categoryCounts.put(entry.getKey(), count);
+                }
+            }
+
+            BitSet forPrices = intersect(base, categoryFilter, ratingFilter);
+            int[] priceCounts = new int[priceBands.length];
+            for (int i = 0; i < priceBands.length; i++) {
+                priceCounts[i] = countAnd(forPrices, priceBands[i]);
+            }
+
+            BitSet forRatings = intersect(base, categoryFilter, priceFilter);
+            int[] ratingCounts = new int[ratingBands.length];
+            for (int i = 0; i < ratingBands.length; i++) {
+                ratingCounts[i] = countAnd(forRatings, ratingBands[i]);
+            }
+
+            BitSet matches = intersect(base, categoryFilter, priceFilter, ratingFilter);
+            return new FacetResult(toIds(matches, limit), matches.cardinality(),
+                    categoryCounts, priceCounts, ratingCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Result of a faceted search: first matching ids plus per-facet counts
+    public static class FacetResult {
+        private final List<Long> productIds;
+        private final int total;
+        private final Map<String, Integer> categoryCounts;
+        private final int[] priceCounts;
+        private final int[] ratingCounts;
+
+        FacetResult(List<Long> productIds, int total, Map<String, Integer> categoryCounts,
+                    int[] priceCounts, int[] ratingCounts) {
+            this.productIds = productIds;
+            this.total = total;
+            this.categoryCounts = categoryCounts;
+            this.priceCounts = priceCounts;
+            this.ratingCounts = ratingCounts;
+        }
+
+        public List<Long> getProductIds() {
+            return productIds;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public Map<String, Integer> getCategoryCounts() {
+            return categoryCounts;
+        }
+
+        public int[] getPriceCounts() {
+            return priceCounts;
+        }
+
+        public int[] getRatingCounts() {
+            return ratingCounts;
+        }
+    }
+
+    private BitSet keywordMatches(String[] queryTerms, boolean matchAll) {
+        BitSet result = null;
+        for (String term : queryTerms) {
+            BitSet matches = termMatches(term);
+            if (result == null) {
+                result = matches;
+            } else if (matchAll) {
+                result.and(matches);
+            } else {
+                result.or(matches);
+            }
+            if (matchAll && result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    // Union of postings for every indexed term containing the query term
+    private BitSet termMatches(String queryTerm) {
+        BitSet matches = new BitSet();
+        for (String term : termsContaining(queryTerm)) {
+            postings.get(term).orInto(matches);
+        }
+        return matches;
+    }
+
+    // Indexed terms containing the fragment. Fragments of three or more characters go through the
+    // trigram index; shorter ones have no trigram of their own, so the vocabulary is scanned.
+    private List<String> termsContaining(String fragment) {
+        if (fragment.length() >= 3) {
+            return trigrams.termsContaining(fragment, Integer.MAX_VALUE);
+        }
+        List<String> terms = new ArrayList<>();
+        for (String term : postings.keySet()) {
+            if (term.contains(fragment)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Products whose value lies in [min, max]. Bands that fall entirely
+     * inside the range are OR'ed in as a whole; only the bands cut by a
+     * bound are checked product by product. Returns null when unbounded.
+     */
+    private BitSet rangeFilter(BitSet[] bands, double[] bounds, double[] values, Double min, Double max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        double low = min == null ? Double.NEGATIVE_INFINITY : min;
+        double high = max == null ? Double.POSITIVE_INFINITY : max;
+        BitSet result = new BitSet();
+        for (int i = 0; i < bands.length; i++) {
+            double from = i == 0 ? Double.NEGATIVE_INFINITY : bounds[i];
+            double to = i + 1 < bounds.length ? bounds[i + 1] : Double.POSITIVE_INFINITY;
+            if (to <= low || from > high) {
+                continue;
+            }
+            if (from >= low && to <= high) {
+                result.or(bands[i]);
+                continue;
+            }
+            BitSet band = bands[i];
+            for (int doc = band.nextSetBit(0); doc >= 0; doc = band.nextSetBit(doc + 1)) {
+                if (values[doc] >= low && values[doc] <= high) {
+                    result.set(doc);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void unindex(int doc) {
+        String[] previous = documentTerms.remove(doc);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous) {
+            PostingList posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(doc);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                    trigrams.remove(term);
+                }
+            }
+        }
+        active.clear(doc);
+        available.clear(doc);
+
+        String category = documentCategory.remove(doc);
+        if (category != null) {
+            BitSet members = categories.get(category);
+            members.clear(doc);
+            if (members.isEmpty()) {
+                categories.remove(category);
+            }
+        }
+        priceBands[band(PRICE_BANDS, prices[doc])].clear(doc);
+        ratingBands[band(RATING_BANDS, ratings[doc])].clear(doc);
+    }
+
+    private void ensureCapacity(int doc) {
+        if (doc >= prices.length) {
+            int capacity = Math.max(doc + 1, prices.length * 2);
+            prices = Arrays.copyOf(prices, capacity);
+            ratings = Arrays.copyOf(ratings, capacity);
+        }
+    }
+
+    private static BitSet intersect(BitSet base, BitSet... filters) {
+        BitSet result = (BitSet) base.clone();
+        for (BitSet filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private static int countAnd(BitSet a, BitSet b) {
+        BitSet copy = (BitSet) a.clone();
+        copy.and(b);
+        return copy.cardinality();
+    }
+
+    private static List<Long> toIds(BitSet docs, int limit) {
+        List<Long> ids = new ArrayList<>();
+        for (int doc = docs.nextSetBit(0); doc >= 0 && ids.size() < limit; doc = docs.nextSetBit(doc + 1)) {
+            ids.add((long) doc);
+        }
+        return ids;
+    }
+
+    // Index of the band whose lower bound is the greatest one <= value
+    private static int band(double[] bounds, double value) {
+        int band = 0;
+        while (band + 1 < bounds.length && value >= bounds[band + 1]) {
+            band++;
+        }
+        return band;
+    }
+
+    private static BitSet[] newBands(int count) {
+        BitSet[] bands = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            bands[i] = new BitSet();
+        }
+        return bands;
+    }
+
+    static boolean isAvailable(Product product) {
+        return "ACTIVE".equals(product.getStatus()) && product.getStock() > 0;
+    }
+
+    static int toDoc(Long productId) {
+        return Math.toIntExact(productId);
+    }
+
+    // Lowercase and split on anything that is not a letter or digit
+    static String[] tokenize(String... fields) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String field : fields) {
+            if (field == null) {
+                continue;
+            }
+            for (String token : field.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (!token.isEmpty()) {
+                    terms.add(token);
+                }
+            }
+        }
+        return terms.toArray(new String[0]);
+    }
+}
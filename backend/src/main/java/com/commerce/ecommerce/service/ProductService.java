@@ -1,45 +1,206 @@
 package com.commerce.ecommerce.service;
 
+import com.commerce.ecommerce.config.PaginationProperties;
+import com.commerce.ecommerce.dto.CursorPage;
+import com.commerce.ecommerce.dto.DataVersion;
+import com.commerce.ecommerce.dto.FacetBucket;
+import com.commerce.ecommerce.dto.FacetedSearchResponse;
+import com.commerce.ecommerce.dto.ProductChangesResponse;
+import com.commerce.ecommerce.dto.ProductDTO;
+import com.commerce.ecommerce.dto.SuggestionDTO;
+import com.commerce.ecommerce.dto.KeysetCursor;
 import com.commerce.ecommerce.model.Product;
 import com.commerce.ecommerce.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
 
+    private static final int INDEX_BATCH_SIZE = 1000;
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductSuggestIndex suggestIndex;
+
+    @Autowired
+    private ProductChangeFeed changeFeed;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private PaginationProperties pagination;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.search.fuzzy-max-candidates:64}")
+    private int fuzzyMaxCandidates;
+
+    @Value("${app.search.fuzzy-max-hits:1000}")
+    private int fuzzyMaxHits;
+
+    // Build the search index once the application (and demo data) is ready
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildSearchIndex() {
+        searchIndex.clear();
+        suggestIndex.clear();
+        Page<Product> page = productRepository.findAll(PageRequest.of(0, INDEX_BATCH_SIZE, Sort.by("id")));
+        while (true) {
+            page.forEach(this::indexProduct);
+            if (!page.hasNext()) {
+                break;
+            }
+            page = productRepository.findAll(page.nextPageable());
+        }
+    }
+
     // Get all products
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
+    // Get one page of all products, newest first
+    public CursorPage<Product> getProductsPage(String cursor, Integer limit) {
+        int size = pagination.resolve(limit);
+        PageRequest request = PageRequest.of(0, size + 1);
+        List<Product> fetched;
+        if (cursor == null) {
+            fetched = productRepository.findFirstPage(request);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            fetched = productRepository.findPageAfter(after.getCreatedAt(), after.getId(), request);
+        }
+        return CursorPage.of(fetched, size, p -> new KeysetCursor(p.getCreatedAt(), p.getId()));
+    }
+
+    // Listing view of all products (no description/imagesJson)
+    public List<ProductDTO> getAllProductListings() {
+        return productRepository.findAllListings();
+    }
+
+    // Listing view of one page of all products, newest first
+    public CursorPage<ProductDTO> getProductListingsPage(String cursor, Integer limit) {
+        int size = pagination.resolve(limit);
+        PageRequest request = PageRequest.of(0, size + 1);
+        List<ProductDTO> fetched;
+        if (cursor == null) {
+            fetched = productRepository.findFirstListingPage(request);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            fetched = productRepository.findListingPageAfter(after.getCreatedAt(), after.getId(), request);
+        }
+        return CursorPage.of(fetched, size, p -> new KeysetCursor(p.getCreatedAt(), p.getId()));
+    }
+
     // Get products by seller
     public List<Product> getProductsBySeller(Long sellerId) {
-        return productRepository.findAll().stream()
-                .filter(p -> p.getSellerId() != null && p.getSellerId().equals(sellerId))
-                .toList();
+        return productRepository.findBySellerId(sellerId);
     }
 
-    // Search products
+    // Listing view of a seller's products
+    public List<ProductDTO> getProductListingsBySeller(Long sellerId) {
+        return productRepository.findListingsBySellerId(sellerId);
+    }
+
+    // Search products (all keyword terms must match), one page of the default size
     public List<Product> searchProducts(String keyword) {
-        return productRepository.findAll().stream()
-                .filter(p -> p.getName().toLowerCase().contains(keyword.toLowerCase())
-                        || p.getDescription().toLowerCase().contains(keyword.toLowerCase())
-                        || (p.getCategory() != null && p.getCategory().toLowerCase().contains(keyword.toLowerCase())))
-                .filter(p -> "ACTIVE".equals(p.getStatus()) && p.getStock() > 0)
+        return searchProducts(keyword, true, null);
+    }
+
+    // Search products through the inverted index, matching all or any of the keyword terms. Only the
+    // first page of hits is loaded, so a broad keyword can't pull the whole catalog into one IN list.
+    public List<Product> searchProducts(String keyword, boolean matchAll, Integer limit) {
+        List<Long> ids = searchIndex.search(keyword, matchAll, pagination.resolve(limit));
+        return loadInOrder(ids, productRepository::findAllById, Product::getId);
+    }
+
+    // Listing view of search results
+    public List<ProductDTO> searchProductListings(String keyword, boolean matchAll, Integer limit) {
+        List<Long> ids = searchIndex.search(keyword, matchAll, pagination.resolve(limit));
+        return loadInOrder(ids, productRepository::findListingsByIdIn, ProductDTO::getId);
+    }
+
+    // Typo tolerant search, best matches first
+    public List<Product> searchProductsFuzzy(String keyword, Integer limit) {
+        List<Long> ids = searchIndex.searchFuzzy(keyword, fuzzyMaxCandidates, fuzzyMaxHits, pagination.resolve(limit));
+        return loadInOrder(ids, productRepository::findAllById, Product::getId);
+    }
+
+    // Listing view of typo tolerant search results
+    public List<ProductDTO> searchProductListingsFuzzy(String keyword, Integer limit) {
+        List<Long> ids = searchIndex.searchFuzzy(keyword, fuzzyMaxCandidates, fuzzyMaxHits, pagination.resolve(limit));
+        return loadInOrder(ids, productRepository::findListingsByIdIn, ProductDTO::getId);
+    }
+
+    // Load rows for index hits, keeping the order the index returned them in
+    private <T> List<T> loadInOrder(List<Long> ids, Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, T> rows = loader.apply(ids).stream()
+                .collect(Collectors.toMap(idOf, Function.identity()));
+        return ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
                 .toList();
     }
 
+    // Faceted search: filtered products plus category, price and rating counts from the index
+    public FacetedSearchResponse facetedSearch(String keyword, String category, Double minPrice, Double maxPrice,
+                                               Double minRating, boolean inStock, Integer limit) {
+        ProductSearchIndex.FacetResult result = searchIndex.facetedSearch(keyword, category, minPrice, maxPrice,
+                minRating, inStock, pagination.resolve(limit));
+
+        FacetedSearchResponse response = new FacetedSearchResponse();
+        response.setProducts(loadInOrder(result.getProductIds(), productRepository::findListingsByIdIn, ProductDTO::getId));
+        response.setTotal(result.getTotal());
+        response.setCategories(result.getCategoryCounts());
+        response.setPriceBuckets(toBuckets(ProductSearchIndex.PRICE_BANDS, result.getPriceCounts()));
+        response.setRatingBuckets(toBuckets(ProductSearchIndex.RATING_BANDS, result.getRatingCounts()));
+        return response;
+    }
+
+    private List<FacetBucket> toBuckets(double[] bounds, int[] counts) {
+        List<FacetBucket> buckets = new ArrayList<>();
+        for (int i = 0; i < bounds.length; i++) {
+            Double to = i + 1 < bounds.length ? bounds[i + 1] : null;
+            buckets.add(new FacetBucket(bounds[i], to, counts[i]));
+        }
+        return buckets;
+    }
+
     // Get product by ID
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        return productCache.get(id, productRepository::findById);
     }
 
     // Create product
@@ -47,14 +208,22 @@ public class ProductService {
         product.setCreatedAt(LocalDateTime.now());
         product.setUpdatedAt(LocalDateTime.now());
         product.setStatus("ACTIVE");
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        indexProduct(saved);
+        changeFeed.recordUpsert("CREATED", saved);
+        return saved;
     }
 
-    // Update product
+    // Update product. Stock held by a running flash sale can't be overwritten; the row lock
+    // orders this against FlashSaleService.start, which seeds its counter under the same lock.
+    @Transactional
     public Product updateProduct(Long id, Product productDetails) {
-        Optional<Product> product = productRepository.findById(id);
+        Optional<Product> product = productRepository.findByIdForUpdate(id);
         if (product.isPresent()) {
             Product p = product.get();
+            if (p.getStock() != productDetails.getStock() && flashSaleService.isOnSale(id)) {
+                throw new FlashSaleActiveException(id);
+            }
             p.setName(productDetails.getName());
             p.setPrice(productDetails.getPrice());
             p.setDescription(productDetails.getDescription());
@@ -64,7 +233,10 @@ public class ProductService {
             p.setStock(productDetails.getStock());
             p.setCategory(productDetails.getCategory());
             p.setUpdatedAt(LocalDateTime.now());
-            return productRepository.save(p);
+            Product saved = productRepository.save(p);
+            // Propagated once the update commits, so caches and indexes never hold an uncommitted row
+            eventPublisher.publishEvent(new ProductsUpdatedEvent(List.of(saved.getId())));
+            return saved;
         }
         return null;
     }
@@ -72,20 +244,109 @@ public class ProductService {
     // Delete product
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        productCache.invalidate(id);
+        searchIndex.remove(id);
+        suggestIndex.remove(id);
+        changeFeed.recordDelete(id);
+    }
+
+    // Propagate a product write made outside this service (e.g. rating updates)
+    public void productChanged(Product product) {
+        productCache.invalidate(product.getId());
+        indexProduct(product);
+        changeFeed.recordUpsert("UPDATED", product);
+    }
+
+    // Products were changed in a committed transaction; reload and propagate.
+    // Runs on another thread so it neither joins the finished transaction nor asks the
+    // pool for a second connection while the request thread still holds its first.
+    @Async
+    @TransactionalEventListener
+    public void onProductsUpdated(ProductsUpdatedEvent event) {
+        productRepository.findAllById(event.getProductIds()).forEach(this::productChanged);
+    }
+
+    private void indexProduct(Product product) {
+        searchIndex.index(product);
+        suggestIndex.index(product);
+    }
+
+    // Top completions for a search box prefix
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        return suggestIndex.suggest(prefix, limit);
+    }
+
+    // Products created, updated or deleted after the given change sequence
+    public ProductChangesResponse getChangesSince(long since) {
+        return changeFeed.changesSince(since);
+    }
+
+    // Sequence of the newest catalog change
+    public long getLatestChangeSequence() {
+        return changeFeed.getLatestSequence();
     }
 
     // Get active products
     public List<Product> getActiveProducts() {
-        return productRepository.findAll().stream()
-                .filter(p -> "ACTIVE".equals(p.getStatus()) && p.getStock() > 0)
-                .toList();
+        return productRepository.findByStatusAndStockGreaterThan("ACTIVE", 0);
+    }
+
+    // Listing view of active products
+    public List<ProductDTO> getActiveProductListings() {
+        return productRepository.findActiveListings();
+    }
+
+    // Listing view of one page of active products, newest first
+    public CursorPage<ProductDTO> getActiveProductListingsPage(String cursor, Integer limit) {
+        int size = pagination.resolve(limit);
+        PageRequest request = PageRequest.of(0, size + 1);
+        List<ProductDTO> fetched;
+        if (cursor == null) {
+            fetched = productRepository.findFirstActiveListingPage(request);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            fetched = productRepository.findActiveListingPageAfter(after.getCreatedAt(), after.getId(), request);
+        }
+        return CursorPage.of(fetched, size, p -> new KeysetCursor(p.getCreatedAt(), p.getId()));
+    }
+
+    // Get one page of active products, newest first
+    public CursorPage<Product> getActiveProductsPage(String cursor, Integer limit) {
+        int size = pagination.resolve(limit);
+        PageRequest request = PageRequest.of(0, size + 1);
+        List<Product> fetched;
+        if (cursor == null) {
+            fetched = productRepository.findFirstActivePage(request);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            fetched = productRepository.findActivePageAfter(after.getCreatedAt(), after.getId(), request);
+        }
+        return CursorPage.of(fetched, size, p -> new KeysetCursor(p.getCreatedAt(), p.getId()));
     }
 
     // Filter by category
     public List<Product> getProductsByCategory(String category) {
-        return productRepository.findAll().stream()
-                .filter(p -> category.equals(p.getCategory()) && "ACTIVE".equals(p.getStatus()))
-                .toList();
+        return productRepository.findByCategoryAndStatus(category, "ACTIVE");
+    }
+
+    // Listing view of a category's active products
+    public List<ProductDTO> getProductListingsByCategory(String category) {
+        return productRepository.findActiveListingsByCategory(category);
+    }
+
+    // Version of the whole catalog, used for conditional GET
+    public DataVersion getCatalogVersion() {
+        return productRepository.findVersion();
+    }
+
+    // Version of one seller's products, used for conditional GET
+    public DataVersion getSellerCatalogVersion(Long sellerId) {
+        return productRepository.findVersionBySellerId(sellerId);
+    }
+
+    // Hit/miss/eviction counters of the product cache
+    public Map<String, Long> getCacheStats() {
+        return productCache.stats();
     }
 
     public Product addProduct(Product product) {
@@ -0,0 +1,279 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.dto.SuggestionDTO;
+import com.commerce.ecommerce.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix autocomplete over product name tokens and category values of
+ * ACTIVE products. Completions live in tries whose nodes keep the top
+ * MAX_SUGGESTIONS completions below them, so a lookup walks the prefix and
+ * returns that node's list whatever the prefix length. Each completion
+ * keeps the number of products carrying it and their best score. A write
+ * only marks the nodes on its completion's path stale; a stale node's list
+ * is rebuilt from its children's lists the next time a lookup reaches it.
+ */
+@Component
+public class ProductSuggestIndex {
+
+    // Longest suggestion list a lookup can ask for, and the size of each node's precomputed list
+    public static final int MAX_SUGGESTIONS = 50;
+
+    // Best first: score, then how many products carry the completion, then alphabetical
+    private static final Comparator<Candidate> RANK = Comparator.<Candidate>comparingDouble(c -> c.score)
+            .thenComparingInt(c -> c.products)
+            .thenComparing(c -> c.text, Comparator.reverseOrder())
+            .reversed();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Node nameTerms = new Node();
+    private final Node categoryTerms = new Node();
+
+    // product id -> keys it contributed, so updates and deletes can retract them
+    private final Map<Integer, String[]> documentNameTerms = new HashMap<>();
+    private final Map<Integer, String> documentCategory = new HashMap<>();
+    private final Map<Integer, Float> documentScore = new HashMap<>();
+
+    // Index or re-index a product; non-ACTIVE products are removed
+    public void index(Product product) {
+        if (product.getId() == null) {
+            return;
+        }
+        int doc = ProductSearchIndex.toDoc(product.getId());
+        lock.writeLock().lock();
+        try {
+            unindex(doc);
+            if (!"ACTIVE".equals(product.getStatus())) {
+                return;
+            }
+            float score = score(product);
+            String[] terms = ProductSearchIndex.tokenize(product.getName());
+            for (String term : terms) {
+                add(nameTerms, term, term, "name", doc, score);
+            }
+            documentNameTerms.put(doc, terms);
+            if (product.getCategory() != null && !product.getCategory().isBlank()) {
+                String key = product.getCategory().toLowerCase(Locale.ROOT);
+                add(categoryTerms, key, product.getCategory(), "category", doc, score);
+                documentCategory.put(doc, key);
+            }
+            documentScore.put(doc, score);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            unindex(ProductSearchIndex.toDoc(productId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            nameTerms.clear();
+            categoryTerms.clear();
+            documentNameTerms.clear();
+            documentCategory.clear();
+            documentScore.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Top k completions for the prefix, best scoring first
+    public List<SuggestionDTO> suggest(String prefix, int k) {
+        String key = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        List<SuggestionDTO> suggestions = new ArrayList<>();
+        if (key.isEmpty() || k <= 0) {
+            return suggestions;
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            candidates.addAll(top(categoryTerms, key));
+            candidates.addAll(top(nameTerms, key));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        candidates.sort(RANK);
+        for (int i = 0; i < candidates.size() && i < Math.min(k, MAX_SUGGESTIONS); i++) {
+            Candidate candidate = candidates.get(i);
+            suggestions.add(new SuggestionDTO(candidate.text, candidate.type, candidate.products));
+        }
+        return suggestions;
+    }
+
+    private List<Candidate> top(Node root, String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return node == null ? List.of() : node.top(documentScore);
+    }
+
+    // Add a product to the completion at key, creating the path as needed and marking it stale
+    private static void add(Node root, String key, String text, String type, int doc, float score) {
+        Node node = root;
+        node.stale = true;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            node.stale = true;
+        }
+        if (node.completion == null) {
+            node.completion = new Completion(text, type);
+        }
+        node.completion.add(doc, score);
+    }
+
+    // Take a product off the completion at key, pruning nodes nothing hangs off any more
+    private static void retract(Node root, String key, int doc, float score) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].children.get(key.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+        Node leaf = path[key.length()];
+        if (leaf.completion == null) {
+            return;
+        }
+        if (leaf.completion.remove(doc, score)) {
+            leaf.completion = null;
+        }
+        for (int i = key.length(); i >= 0; i--) {
+            path[i].stale = true;
+            if (i > 0 && path[i].completion == null && path[i].children.isEmpty()) {
+                path[i - 1].children.remove(key.charAt(i - 1));
+            }
+        }
+    }
+
+    private void unindex(int doc) {
+        Float score = documentScore.remove(doc);
+        if (score == null) {
+            return;
+        }
+        String[] terms = documentNameTerms.remove(doc);
+        if (terms != null) {
+            for (String term : terms) {
+                retract(nameTerms, term, doc, score);
+            }
+        }
+        String category = documentCategory.remove(doc);
+        if (category != null) {
+            retract(categoryTerms, category, doc, score);
+        }
+    }
+
+    // Popularity of a product: average rating weighted by how many reviews back it
+    private static float score(Product product) {
+        return (float) (product.getRating() * Math.log1p(Math.max(product.getReviews(), 0)));
+    }
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>();
+        Completion completion;
+        List<Candidate> top = List.of();
+        boolean stale;
+
+        // This subtree's best completions, rebuilt from the children's lists if a write touched it since.
+        // Lookups run concurrently under the read lock, hence the monitor; nodes are locked parent
+        // before child, so concurrent rebuilds cannot deadlock.
+        synchronized List<Candidate> top(Map<Integer, Float> scores) {
+            if (stale) {
+                List<Candidate> merged = new ArrayList<>();
+                if (completion != null) {
+                    merged.add(completion.candidate(scores));
+                }
+                for (Node child : children.values()) {
+                    merged.addAll(child.top(scores));
+                }
+                merged.sort(RANK);
+                top = List.copyOf(merged.subList(0, Math.min(merged.size(), MAX_SUGGESTIONS)));
+                stale = false;
+            }
+            return top;
+        }
+
+        void clear() {
+            children.clear();
+            completion = null;
+            top = List.of();
+            stale = false;
+        }
+    }
+
+    private static final class Completion {
+        final String text;
+        final String type;
+        final PostingList products = new PostingList();
+        float best;
+        boolean bestStale;
+
+        Completion(String text, String type) {
+            this.text = text;
+            this.type = type;
+        }
+
+        void add(int doc, float score) {
+            products.add(doc);
+            if (score >= best) {
+                best = score;
+            }
+        }
+
+        // Returns true when no product carries this completion any more
+        boolean remove(int doc, float score) {
+            products.remove(doc);
+            if (score >= best) {
+                bestStale = true;
+            }
+            return products.isEmpty();
+        }
+
+        // Best score is recomputed once the best product was removed, over this completion's own products;
+        // only called from a node rebuild, under that node's monitor
+        Candidate candidate(Map<Integer, Float> scores) {
+            if (bestStale) {
+                best = 0;
+                for (int i = 0; i < products.size(); i++) {
+                    best = Math.max(best, scores.getOrDefault(products.get(i), 0f));
+                }
+                bestStale = false;
+            }
+            return new Candidate(text, type, best, products.size());
+        }
+    }
+
+    private static final class Candidate {
+        final String text;
+        final String type;
+        final float score;
+        final int products;
+
+        Candidate(String text, String type, float score, int products) {
+            this.text = text;
+            this.type = type;
+            this.score = score;
+            this.products = products;
+        }
+    }
+}
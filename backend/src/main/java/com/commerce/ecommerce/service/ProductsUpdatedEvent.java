@@ -0,0 +1,17 @@
+package com.commerce.ecommerce.service;
+
+import java.util.Collection;
+
+// Published inside a transaction that changed products, e.g. stock reservations or a product edit
+public class ProductsUpdatedEvent {
+
+    private final Collection<Long> productIds;
+
+    public ProductsUpdatedEvent(Collection<Long> productIds) {
+        this.productIds = productIds;
+    }
+
+    public Collection<Long> getProductIds() {
+        return productIds;
+    }
+}
@@ -0,0 +1,194 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.RatingUpdate;
+import com.commerce.ecommerce.repository.ProductRepository;
+import com.commerce.ecommerce.repository.RatingUpdateRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces product rating changes from review writes. Each review write
+ * also inserts a rating_updates row with its stars in the same
+ * transaction, and every flush-interval the queued rows are applied with
+ * one atomic UPDATE per product (and one for its seller) and deleted,
+ * however many reviews arrived for it meanwhile. Review requests never
+ * touch the product or seller row, so a burst of reviews on one product no
+ * longer queues up on its row lock. Queued changes live in the database,
+ * so a crash only delays them until the next flush after restart, and a
+ * clean shutdown applies them before the application stops. Ratings lag
+ * by at most one interval plus the flush itself.
+ */
+@Component
+public class RatingUpdateQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingUpdateQueue.class);
+
+    @Autowired
+    private RatingUpdateRepository updateRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.rating-queue.batch-size:500}")
+    private int batchSize;
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+    private volatile long lastFlushMillis;
+
+    // Queue one review's stars (sign -1 to take them out); joins the caller's transaction
+    public void enqueue(Long productId, int stars, int sign) {
+        updateRepository.save(new RatingUpdate(productId, productRepository.findSellerIdById(productId), stars, sign));
+        queued.incrementAndGet();
+    }
+
+    // Take a product's queued changes out of the queue while its totals are recounted from its reviews.
+    // Only the product side is covered by the recount, so the seller side is applied here and now.
+    // Joins the recount's transaction, which holds the product row lock and so keeps flushes out.
+    void discardProductSide(Long productId) {
+        List<RatingUpdate> updates = updateRepository.findByProductIdOrderByIdAsc(productId);
+        if (!updates.isEmpty()) {
+            applySellerSide(updates);
+            updateRepository.deleteByIds(updates.stream().map(RatingUpdate::getId).toList());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.rating-queue.flush-interval:PT1S}")
+    public synchronized void flush() {
+        long start = System.nanoTime();
+        Set<Long> attempted = new HashSet<>();
+        List<Long> flushed = new ArrayList<>();
+        while (true) {
+            List<Long> productIds = updateRepository.findPendingProductIds(PageRequest.of(0, batchSize));
+            // A product that failed, or was queued again meanwhile, waits for the next flush
+            List<Long> fresh = productIds.stream().filter(attempted::add).toList();
+            for (Long productId : fresh) {
+                try {
+                    RatingDelta delta = transactionTemplate.execute(status -> applyQueued(productId));
+                    if (delta == null) {
+                        continue;
+                    }
+                    applied.incrementAndGet();
+                    maxLagMillis.accumulateAndGet(Duration.between(delta.oldest, LocalDateTime.now()).toMillis(), Math::max);
+                    flushed.add(productId);
+                } catch (RuntimeException e) {
+                    // The rows stay queued and are retried on the next flush
+                    failed.incrementAndGet();
+                    log.warn("Could not apply rating changes to product {}: {}", productId, e.toString());
+                }
+            }
+            if (fresh.isEmpty() || productIds.size() < batchSize) {
+                break;
+            }
+        }
+        if (attempted.isEmpty()) {
+            return;
+        }
+        // Refresh caches, search index and change feed once per product, after the updates committed
+        productRepository.findAllById(flushed).forEach(productService::productChanged);
+        lastFlushMillis = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    // Apply and delete one product's queued changes. The product row lock is taken before the queue is
+    // read, so a concurrent rebuild has either already discarded them or waits until they are applied.
+    private RatingDelta applyQueued(Long productId) {
+        boolean exists = productRepository.findByIdForUpdate(productId).isPresent();
+        List<RatingUpdate> updates = updateRepository.findByProductIdOrderByIdAsc(productId);
+        if (updates.isEmpty()) {
+            return null;
+        }
+        RatingDelta delta = RatingDelta.of(updates);
+        if (exists) {
+            productRepository.applyRatingDelta(productId, delta.sum, delta.count, delta.stars[1],
+                    delta.stars[2], delta.stars[3], delta.stars[4], delta.stars[5], LocalDateTime.now());
+        }
+        // Sellers keep the reviews their products received, even once the product is gone
+        applySellerSide(updates);
+        updateRepository.deleteByIds(updates.stream().map(RatingUpdate::getId).toList());
+        return delta;
+    }
+
+    // One atomic UPDATE per seller the queued reviews were written under
+    private void applySellerSide(List<RatingUpdate> updates) {
+        updates.stream().filter(update -> update.getSellerId() != null)
+                .collect(Collectors.groupingBy(RatingUpdate::getSellerId,
+                        Collectors.collectingAndThen(Collectors.toList(), RatingDelta::of)))
+                .forEach((sellerId, delta) -> userService.applySellerRatingDelta(sellerId, delta.sum, delta.count));
+    }
+
+    // Apply what is still queued so ratings are current while the application is down
+    @PreDestroy
+    void flushOnShutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Still queued in the database; the first flush after restart applies it
+            log.warn("Could not flush rating changes on shutdown: {}", e.toString());
+        }
+    }
+
+    public Map<String, Long> stats() {
+        long reviews = queued.get();
+        long updates = applied.get();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("pendingProducts", updateRepository.countPendingProducts());
+        stats.put("queuedChanges", reviews);
+        stats.put("productUpdates", updates);
+        stats.put("failedUpdates", failed.get());
+        // Share of review changes absorbed into another change's product update
+        stats.put("coalescedPercent", reviews == 0 ? 0 : Math.max(0, 100 - updates * 100 / reviews));
+        stats.put("maxLagMillis", maxLagMillis.get());
+        stats.put("lastFlushMillis", lastFlushMillis);
+        return stats;
+    }
+
+    // Net change to one product's or seller's rating totals from queued rows
+    static final class RatingDelta {
+        final int[] stars = new int[6];
+        long sum;
+        int count;
+        LocalDateTime oldest;
+
+        static RatingDelta of(List<RatingUpdate> updates) {
+            RatingDelta delta = new RatingDelta();
+            for (RatingUpdate update : updates) {
+                delta.stars[update.getStars()] += update.getSign();
+                delta.sum += (long) update.getSign() * update.getStars();
+                delta.count += update.getSign();
+                if (delta.oldest == null || update.getCreatedAt().isBefore(delta.oldest)) {
+                    delta.oldest = update.getCreatedAt();
+                }
+            }
+            return delta;
+        }
+    }
+}
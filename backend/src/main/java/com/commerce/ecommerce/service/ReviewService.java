@@ -1,13 +1,30 @@
 package com.commerce.ecommerce.service;
 
-import com.commerce.ecommerce.model.Review;
+import com.commerce.ecommerce.config.PaginationProperties;
+import com.commerce.ecommerce.dto.CursorPage;
+import com.commerce.ecommerce.dto.ReviewCursor;
+import com.commerce.ecommerce.dto.ReviewPage;
 import com.commerce.ecommerce.model.Product;
+import com.commerce.ecommerce.model.Review;
+import com.commerce.ecommerce.model.User;
 import com.commerce.ecommerce.repository.ReviewRepository;
 import com.commerce.ecommerce.repository.ProductRepository;
+import com.commerce.ecommerce.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ReviewService {
@@ -18,28 +35,130 @@ public class ReviewService {
     @Autowired
     private ProductRepository productRepository;
 
-    // Create review and update product rating
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RatingUpdateQueue ratingUpdateQueue;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PaginationProperties pagination;
+
+    @Value("${app.seller-ratings.rebuild-chunk-size:500}")
+    private int sellerRebuildChunkSize;
+
+    // Create review and add it to the product rating
+    @Transactional
     public Review createReview(Review review) {
+        if (!isStarRating(review.getRating())) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5 stars");
+        }
         Review savedReview = reviewRepository.save(review);
-        updateProductRating(review.getProductId());
+        applyRating(review.getProductId(), review.getRating(), 1);
         return savedReview;
     }
     
-    // Update product rating based on all reviews
-    private void updateProductRating(Long productId) {
-        List<Review> reviews = reviewRepository.findByProductId(productId);
-        if (!reviews.isEmpty()) {
-            double avgRating = reviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0.0);
-            
-            productRepository.findById(productId).ifPresent(product -> {
-                product.setRating(Math.round(avgRating * 10.0) / 10.0); // Round to 1 decimal
-                product.setReviews(reviews.size());
-                productRepository.save(product);
+    // Add or remove one review's stars. The change is queued in the review's transaction and applied to
+    // the product with a single atomic UPDATE, coalesced with other reviews of the same product, so the
+    // request neither waits on the product row nor does work that grows with the number of reviews.
+    private void applyRating(Long productId, int stars, int sign) {
+        ratingUpdateQueue.enqueue(productId, stars, sign);
+    }
+
+    // Recount a product's rating totals from its reviews, holding the product row lock meanwhile
+    public void rebuildProductRating(Long productId) {
+        Boolean rebuilt = transactionTemplate.execute(status -> {
+            if (productRepository.findByIdForUpdate(productId).isEmpty()) {
+                return false;
+            }
+            // Under REPEATABLE READ (MySQL's default) the queue and the reviews are read from one snapshot,
+            // so discarded changes are exactly the ones the recount includes; later ones are applied on top.
+            ratingUpdateQueue.discardProductSide(productId);
+            long sum = 0;
+            int count = 0;
+            int[] histogram = new int[6];
+            for (Object[] row : reviewRepository.countByRating(productId)) {
+                int stars = ((Number) row[0]).intValue();
+                int reviews = ((Number) row[1]).intValue();
+                // Reviews stored before ratings were validated are left out
+                if (isStarRating(stars)) {
+                    histogram[stars] = reviews;
+                    sum += (long) stars * reviews;
+                    count += reviews;
+                }
+            }
+            productRepository.setRatingTotals(productId, sum, count, histogram[1], histogram[2], histogram[3],
+                    histogram[4], histogram[5], LocalDateTime.now());
+            return true;
+        });
+        if (Boolean.TRUE.equals(rebuilt)) {
+            productRepository.findById(productId).ifPresent(productService::productChanged);
+        }
+    }
+
+    // Fill in the totals of products rated before they were kept, and of any that drifted
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildStaleRatings() {
+        productRepository.findIdsWithStaleRatingTotals().forEach(this::rebuildProductRating);
+    }
+
+    // Recount every user's seller rating from the reviews of their products, in chunks of users whose
+    // rows stay locked while their chunk is recounted. Queued review changes are applied first.
+    // Returns how many users were checked and how many had totals that did not match.
+    public Map<String, Long> rebuildSellerRatings() {
+        ratingUpdateQueue.flush();
+        long[] checked = {0};
+        long[] corrected = {0};
+        Long afterId = 0L;
+        while (afterId != null) {
+            Long from = afterId;
+            afterId = transactionTemplate.execute(status -> {
+                List<User> users = userRepository.findChunkForUpdate(from, PageRequest.of(0, sellerRebuildChunkSize));
+                if (users.isEmpty()) {
+                    return null;
+                }
+                Map<Long, Object[]> totals = reviewRepository
+                        .sumRatingsBySeller(users.stream().map(User::getId).toList()).stream()
+                        .collect(Collectors.toMap(row -> ((Number) row[0]).longValue(), Function.identity()));
+                for (User user : users) {
+                    Object[] row = totals.get(user.getId());
+                    long sum = row == null ? 0 : ((Number) row[1]).longValue();
+                    int count = row == null ? 0 : ((Number) row[2]).intValue();
+                    if (user.getRatingSum() != sum || user.getTotalReviews() != count) {
+                        userRepository.setRatingTotals(user.getId(), sum, count);
+                        corrected[0]++;
+                    }
+                }
+                checked[0] += users.size();
+                return users.size() < sellerRebuildChunkSize ? null : users.get(users.size() - 1).getId();
             });
         }
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("usersChecked", checked[0]);
+        result.put("usersCorrected", corrected[0]);
+        return result;
+    }
+
+    // Seller totals start empty when the columns are first added; fill them in from existing reviews
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSellerRatings() {
+        if (!userRepository.existsByRatingSumGreaterThan(0) && reviewRepository.count() > 0) {
+            rebuildSellerRatings();
+        }
+    }
+
+    private static boolean isStarRating(int rating) {
+        return rating >= 1 && rating <= 5;
+    }
+
+    public Map<String, Long> getRatingQueueStats() {
+        return ratingUpdateQueue.stats();
     }
 
     // Get product reviews
@@ -47,13 +166,44 @@ public class ReviewService {
         return reviewRepository.findByProductId(productId);
     }
 
+    // One page of a product's reviews in the given order, with the star histogram kept on the product
+    public ReviewPage getProductReviewsPage(Long productId, String sort, String cursor, Integer limit) {
+        int size = pagination.resolve(limit);
+        PageRequest request = PageRequest.of(0, size + 1);
+        ReviewCursor after = cursor == null ? null : ReviewCursor.decode(cursor);
+        List<Review> fetched = switch (sort) {
+            case "newest" -> after == null ? reviewRepository.findNewestFirstPage(productId, request)
+                    : reviewRepository.findNewestPageAfter(productId, after.getCreatedAt(), after.getId(), request);
+            case "withComment" -> after == null ? reviewRepository.findWithCommentFirstPage(productId, request)
+                    : reviewRepository.findWithCommentPageAfter(productId, after.getCreatedAt(), after.getId(), request);
+            case "highest" -> after == null ? reviewRepository.findHighestFirstPage(productId, request)
+                    : reviewRepository.findHighestPageAfter(productId, after.getRating(), after.getCreatedAt(), after.getId(), request);
+            case "lowest" -> after == null ? reviewRepository.findLowestFirstPage(productId, request)
+                    : reviewRepository.findLowestPageAfter(productId, after.getRating(), after.getCreatedAt(), after.getId(), request);
+            default -> throw new IllegalArgumentException("Unknown review sort: " + sort + " (use newest, highest, lowest or withComment)");
+        };
+        CursorPage<Review> page = CursorPage.of(fetched, size, r -> new ReviewCursor(r.getRating(), r.getCreatedAt(), r.getId()));
+        Product product = productService.getProductById(productId).orElse(null);
+        if (product == null) {
+            return new ReviewPage(page, 0, 0, new int[6]);
+        }
+        int[] stars = {0, product.getOneStar(), product.getTwoStars(), product.getThreeStars(),
+                product.getFourStars(), product.getFiveStars()};
+        return new ReviewPage(page, product.getRating(), product.getReviews(), stars);
+    }
+
     // Get user reviews
     public List<Review> getUserReviews(Long userId) {
         return reviewRepository.findByUserId(userId);
     }
 
-    // Delete review
+    // Delete review and take it out of the product rating
+    @Transactional
     public void deleteReview(Long reviewId) {
-        reviewRepository.deleteById(reviewId);
+        reviewRepository.findById(reviewId).ifPresent(review -> {
+            if (reviewRepository.deleteReviewById(reviewId) > 0 && isStarRating(review.getRating())) {
+                applyRating(review.getProductId(), review.getRating(), -1);
+            }
+        });
     }
 }
@@ -0,0 +1,336 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.dto.SalesAnalyticsDTO;
+import com.commerce.ecommerce.dto.SalesItemDTO;
+import com.commerce.ecommerce.dto.SellerSalesDTO;
+import com.commerce.ecommerce.repository.ArchivedOrderItemRepository;
+import com.commerce.ecommerce.repository.ArchivedOrderRepository;
+import com.commerce.ecommerce.repository.OrderItemRepository;
+import com.commerce.ecommerce.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * Platform-wide sales analytics. Sold order items in a date range are read
+ * in keyset chunks and copied into primitive columns, and each chunk is
+ * aggregated by a fork-join task into array and primitive-map accumulators
+ * while the next chunk is being read. Live and archived orders are read
+ * one after the other into the same accumulators. Results are cached per range for a
+ * short TTL, and concurrent requests for the same range share one run.
+ */
+@Service
+public class SalesAnalyticsService {
+
+    private static final String UNCATEGORIZED = "Uncategorized";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    @Value("${app.analytics.chunk-size:10000}")
+    private int chunkSize;
+
+    @Value("${app.analytics.parallelism:0}")
+    private int parallelism; // 0 means one worker per core
+
+    @Value("${app.analytics.cache-ttl:PT1M}")
+    private Duration cacheTtl;
+
+    @Value("${app.analytics.cache-max-entries:64}")
+    private int cacheMaxEntries;
+
+    private ForkJoinPool pool;
+
+    // Access-ordered LRU of results by range, guarded by itself
+    private Map<String, CachedResult> cache;
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > cacheMaxEntries;
+            }
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    // GMV, order value and top sellers for orders placed between two dates, inclusive
+    public SalesAnalyticsDTO getSales(LocalDate from, LocalDate to, int top) {
+        String key = from + "|" + to + "|" + top;
+        CachedResult cached;
+        boolean owner = false;
+        synchronized (cache) {
+            cached = cache.get(key);
+            if (cached == null || cached.expiresAt < System.nanoTime()) {
+                cached = new CachedResult(System.nanoTime() + cacheTtl.toNanos());
+                cache.put(key, cached);
+                owner = true;
+            }
+        }
+        if (owner) {
+            try {
+                cached.result.complete(compute(from, to, top));
+            } catch (RuntimeException e) {
+                synchronized (cache) {
+                    cache.remove(key, cached);
+                }
+                cached.result.completeExceptionally(e);
+            }
+        }
+        try {
+            return cached.result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private SalesAnalyticsDTO compute(LocalDate from, LocalDate to, int top) {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        int days = (int) (to.toEpochDay() - from.toEpochDay() + 1);
+        Map<String, Integer> categoryCodes = new HashMap<>();
+        List<String> categories = new ArrayList<>();
+        SalesAccumulator total = new SalesAccumulator(days, 0);
+        long orderCount = 0;
+
+        Long minOrderId = orderRepository.findMinIdCreatedBetween(start, end);
+        if (minOrderId != null) {
+            Long maxOrderId = orderRepository.findMaxIdCreatedBetween(start, end);
+            orderCount += orderItemRepository.countSoldOrders(minOrderId, maxOrderId, start, end);
+            scan(afterItemId -> orderItemRepository.findSalesItems(minOrderId, maxOrderId, start, end,
+                    afterItemId, PageRequest.of(0, chunkSize)), from, days, categoryCodes, categories, total);
+        }
+        Long minArchivedId = archivedOrderRepository.findMinIdCreatedBetween(start, end);
+        if (minArchivedId != null) {
+            Long maxArchivedId = archivedOrderRepository.findMaxIdCreatedBetween(start, end);
+            orderCount += archivedOrderItemRepository.countSoldOrders(minArchivedId, maxArchivedId, start, end);
+            scan(afterItemId -> archivedOrderItemRepository.findSalesItems(minArchivedId, maxArchivedId, start, end,
+                    afterItemId, PageRequest.of(0, chunkSize)), from, days, categoryCodes, categories, total);
+        }
+        return toDTO(from, to, top, total, orderCount, categories);
+    }
+
+    // Read one source chunk by chunk, aggregating each chunk while the next one is read
+    private void scan(ChunkReader reader, LocalDate from, int days, Map<String, Integer> categoryCodes,
+                      List<String> categories, SalesAccumulator total) {
+        long afterItemId = 0;
+        ForkJoinTask<SalesAccumulator> pending = null;
+        while (true) {
+            List<SalesItemDTO> rows = reader.read(afterItemId);
+            if (rows.isEmpty()) {
+                break;
+            }
+            SalesChunk chunk = new SalesChunk(rows, from.toEpochDay(), categoryCodes, categories);
+            afterItemId = rows.get(rows.size() - 1).getItemId();
+            // Fold the previous chunk in only now, so its aggregation overlapped this read
+            if (pending != null) {
+                total.merge(pending.join());
+            }
+            pending = pool.submit(new AggregateTask(chunk, 0, chunk.size, days));
+            if (rows.size() < chunkSize) {
+                break;
+            }
+        }
+        if (pending != null) {
+            total.merge(pending.join());
+        }
+    }
+
+    private SalesAnalyticsDTO toDTO(LocalDate from, LocalDate to, int top, SalesAccumulator total,
+                                    long orderCount, List<String> categories) {
+        SalesAnalyticsDTO dto = new SalesAnalyticsDTO();
+        dto.setFrom(from);
+        dto.setTo(to);
+        dto.setGmv(total.gmv);
+        dto.setOrderCount(orderCount);
+        dto.setItemCount(total.items);
+        dto.setUnits(total.units);
+        dto.setAverageOrderValue(orderCount == 0 ? 0 : total.gmv / orderCount);
+
+        Map<LocalDate, Double> byDay = new LinkedHashMap<>();
+        for (int d = 0; d < total.gmvByDay.length; d++) {
+            byDay.put(from.plusDays(d), total.gmvByDay[d]);
+        }
+        dto.setGmvByDay(byDay);
+
+        Map<String, Double> byCategory = new LinkedHashMap<>();
+        for (int c = 0; c < total.gmvByCategory.length; c++) {
+            byCategory.put(categories.get(c), total.gmvByCategory[c]);
+        }
+        dto.setGmvByCategory(byCategory);
+
+        int sellers = total.gmvBySeller.size();
+        long[] sellerIds = new long[sellers];
+        double[] sellerGmv = new double[sellers];
+        int[] n = {0};
+        total.gmvBySeller.forEach((sellerId, gmv) -> {
+            sellerIds[n[0]] = sellerId;
+            sellerGmv[n[0]++] = gmv;
+        });
+        List<SellerSalesDTO> topSellers = IntStream.range(0, sellers).boxed()
+                .sorted((a, b) -> Double.compare(sellerGmv[b], sellerGmv[a]))
+                .limit(top)
+                .map(i -> new SellerSalesDTO(sellerIds[i], sellerGmv[i]))
+                .toList();
+        dto.setTopSellers(topSellers);
+        dto.setSellerCount(sellers);
+        dto.setComputedAt(LocalDateTime.now());
+        return dto;
+    }
+
+    // Sold items of one source with item ids above the given one, in id order
+    private interface ChunkReader {
+        List<SalesItemDTO> read(long afterItemId);
+    }
+
+    private static final class CachedResult {
+        final CompletableFuture<SalesAnalyticsDTO> result = new CompletableFuture<>();
+        final long expiresAt;
+
+        CachedResult(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // One chunk of sold items as primitive columns; categories are dictionary-encoded
+    private static final class SalesChunk {
+        static final long NO_SELLER = -1;
+
+        final long[] sellerIds;
+        final int[] days;
+        final int[] categories;
+        final int[] quantities;
+        final double[] amounts;
+        final int size;
+        final int categoryCount;
+
+        SalesChunk(List<SalesItemDTO> rows, long fromDay, Map<String, Integer> codes, List<String> dictionary) {
+            size = rows.size();
+            sellerIds = new long[size];
+            days = new int[size];
+            categories = new int[size];
+            quantities = new int[size];
+            amounts = new double[size];
+            for (int i = 0; i < size; i++) {
+                SalesItemDTO row = rows.get(i);
+                sellerIds[i] = row.getSellerId() != null ? row.getSellerId() : NO_SELLER;
+                days[i] = (int) (row.getCreatedAt().toLocalDate().toEpochDay() - fromDay);
+                String category = row.getCategory() != null ? row.getCategory() : UNCATEGORIZED;
+                categories[i] = codes.computeIfAbsent(category, c -> {
+                    dictionary.add(c);
+                    return dictionary.size() - 1;
+                });
+                quantities[i] = row.getQuantity();
+                amounts[i] = row.getPrice() * row.getQuantity();
+            }
+            categoryCount = dictionary.size();
+        }
+    }
+
+    private static final class SalesAccumulator {
+        final double[] gmvByDay;
+        double[] gmvByCategory;
+        final LongDoubleHashMap gmvBySeller = new LongDoubleHashMap();
+        double gmv;
+        long units;
+        long items;
+
+        SalesAccumulator(int days, int categories) {
+            gmvByDay = new double[days];
+            gmvByCategory = new double[categories];
+        }
+
+        void merge(SalesAccumulator other) {
+            for (int d = 0; d < gmvByDay.length; d++) {
+                gmvByDay[d] += other.gmvByDay[d];
+            }
+            if (other.gmvByCategory.length > gmvByCategory.length) {
+                gmvByCategory = Arrays.copyOf(gmvByCategory, other.gmvByCategory.length);
+            }
+            for (int c = 0; c < other.gmvByCategory.length; c++) {
+                gmvByCategory[c] += other.gmvByCategory[c];
+            }
+            gmvBySeller.addAll(other.gmvBySeller);
+            gmv += other.gmv;
+            units += other.units;
+            items += other.items;
+        }
+    }
+
+    // Splits a chunk until slices are small enough to scan, then merges the partial sums
+    private static final class AggregateTask extends RecursiveTask<SalesAccumulator> {
+        private static final int THRESHOLD = 2048;
+
+        private final SalesChunk chunk;
+        private final int from;
+        private final int to;
+        private final int days;
+
+        AggregateTask(SalesChunk chunk, int from, int to, int days) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+            this.days = days;
+        }
+
+        @Override
+        protected SalesAccumulator compute() {
+            if (to - from <= THRESHOLD) {
+                SalesAccumulator acc = new SalesAccumulator(days, chunk.categoryCount);
+                for (int i = from; i < to; i++) {
+                    double amount = chunk.amounts[i];
+                    acc.gmv += amount;
+                    acc.units += chunk.quantities[i];
+                    acc.gmvByDay[chunk.days[i]] += amount;
+                    acc.gmvByCategory[chunk.categories[i]] += amount;
+                    if (chunk.sellerIds[i] != SalesChunk.NO_SELLER) {
+                        acc.gmvBySeller.add(chunk.sellerIds[i], amount);
+                    }
+                }
+                acc.items = to - from;
+                return acc;
+            }
+            int mid = (from + to) >>> 1;
+            AggregateTask left = new AggregateTask(chunk, from, mid, days);
+            left.fork();
+            SalesAccumulator right = new AggregateTask(chunk, mid, to, days).compute();
+            SalesAccumulator result = left.join();
+            result.merge(right);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.Order;
+import com.commerce.ecommerce.model.OrderOutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Keeps the seller dashboard rollups up to date
+@Component
+public class SellerRollupListener implements OrderEventListener {
+
+    @Autowired
+    private SellerStatsService sellerStatsService;
+
+    // Build the rollups from existing orders before the first delta is applied to them
+    @Override
+    public void beforeDispatch() {
+        sellerStatsService.backfillIfEmpty();
+    }
+
+    @Override
+    public void onOrderEvent(OrderOutboxEvent event, Order order) {
+        if (order == null) {
+            return;
+        }
+        // The backfill already counted the order with this event's change
+        if (event.isRollupCounted()) {
+            return;
+        }
+        if ("CREATED".equals(event.getEventType())) {
+            sellerStatsService.recordOrderCreated(order, event);
+        } else {
+            sellerStatsService.recordStatusChange(order, event);
+        }
+    }
+}
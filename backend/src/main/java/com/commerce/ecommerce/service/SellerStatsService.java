@@ -0,0 +1,229 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.dto.OrderItemDTO;
+import com.commerce.ecommerce.dto.SellerStatsDTO;
+import com.commerce.ecommerce.dto.SellerStatsTotalsDTO;
+import com.commerce.ecommerce.model.ArchivedOrder;
+import com.commerce.ecommerce.model.Order;
+import com.commerce.ecommerce.model.OrderItem;
+import com.commerce.ecommerce.model.OrderOutboxEvent;
+import com.commerce.ecommerce.model.SellerDailyStats;
+import com.commerce.ecommerce.repository.ArchivedOrderItemRepository;
+import com.commerce.ecommerce.repository.ArchivedOrderRepository;
+import com.commerce.ecommerce.repository.OrderItemRepository;
+import com.commerce.ecommerce.repository.OrderOutboxRepository;
+import com.commerce.ecommerce.repository.OrderRepository;
+import com.commerce.ecommerce.repository.SellerDailyStatsRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Seller dashboard rollups. Orders are bucketed by seller and the day they
+ * were placed, and every create or status change adds a delta to that day's
+ * row with a single UPDATE (delivered through the order outbox by
+ * SellerRollupListener), so the dashboard reads a short indexed date range
+ * instead of the seller's whole order history. The first order of a day
+ * inserts the row itself, and the (sellerId, statsDate) unique key keeps a
+ * racing second insert from forking the day: it fails its delivery, and
+ * the outbox retry then finds the row and updates it. The rollups are built
+ * from existing orders before the outbox delivers anything to them.
+ * Archiving orders leaves the rollups untouched.
+ */
+@Service
+public class SellerStatsService {
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    @Autowired
+    private SellerDailyStatsRepository statsRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Set once rows are known to exist, so dispatch rounds stop checking
+    private volatile boolean backfilled;
+
+    // Count a newly placed order as it was when placed. Its later status changes have events of
+    // their own, so the order's current status and amounts must not be used here.
+    public void recordOrderCreated(Order order, OrderOutboxEvent event) {
+        SellerDailyStats delta = createdDelta(order, event.getToStatus(), total(order, event), units(order, event));
+        if (delta != null) {
+            apply(delta);
+        }
+    }
+
+    // Move an order between status columns; cancelling takes it out of revenue and units
+    public void recordStatusChange(Order order, OrderOutboxEvent event) {
+        String oldStatus = event.getFromStatus();
+        String newStatus = event.getToStatus();
+        SellerDailyStats delta = deltaFor(order);
+        if (delta == null || newStatus.equals(oldStatus)) {
+            return;
+        }
+        delta.addStatus(oldStatus, -1);
+        delta.addStatus(newStatus, 1);
+        int sign = "CANCELLED".equals(newStatus) ? -1 : "CANCELLED".equals(oldStatus) ? 1 : 0;
+        delta.setRevenue(sign * total(order, event));
+        delta.setUnits(sign * units(order, event));
+        apply(delta);
+    }
+
+    // Daily rows and totals for a seller between two dates, inclusive
+    public SellerStatsDTO getStats(Long sellerId, LocalDate from, LocalDate to) {
+        List<SellerDailyStats> days = statsRepository.findBySellerIdAndStatsDateBetweenOrderByStatsDateAsc(sellerId, from, to);
+        SellerStatsTotalsDTO totals = new SellerStatsTotalsDTO();
+        days.forEach(totals::add);
+        return new SellerStatsDTO(sellerId, from, to, totals, days);
+    }
+
+    // Build the rollups from existing orders, archived ones included, if there are none yet. Called by the
+    // outbox dispatcher between deliveries, so no delta has been applied before it. The orders and the
+    // undispatched events are read in one transaction, under REPEATABLE READ (MySQL's default) from one
+    // snapshot: each order is counted in the status that snapshot shows, and every undispatched event it
+    // shows is marked as counted so its delta is not added a second time. Events committed after the
+    // snapshot are not reflected in it and are applied as usual.
+    public void backfillIfEmpty() {
+        if (backfilled) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (statsRepository.findTopByOrderByIdAsc().isEmpty()) {
+                backfill();
+            }
+        });
+        backfilled = true;
+    }
+
+    private void backfill() {
+        List<Long> counted = outboxRepository.findUnprocessedIds();
+        Map<String, SellerDailyStats> rows = new HashMap<>();
+        Page<ArchivedOrder> archived = archivedOrderRepository.findAll(PageRequest.of(0, BACKFILL_BATCH_SIZE, Sort.by("id")));
+        while (archived.hasContent()) {
+            addCreated(rows, archived.map(OrderArchiveService::toOrder).getContent(),
+                    archivedOrderItemRepository::findItemsByOrderIds, Long.MAX_VALUE);
+            // One long transaction, so pages already counted are let go of
+            entityManager.clear();
+            if (!archived.hasNext()) {
+                break;
+            }
+            archived = archivedOrderRepository.findAll(archived.nextPageable());
+        }
+        Optional<Order> newest = orderRepository.findTopByOrderByIdDesc();
+        if (newest.isPresent()) {
+            long lastId = newest.get().getId();
+            Page<Order> page = orderRepository.findAll(PageRequest.of(0, BACKFILL_BATCH_SIZE, Sort.by("id")));
+            while (true) {
+                addCreated(rows, page.getContent(), orderItemRepository::findItemsByOrderIds, lastId);
+                entityManager.clear();
+                if (!page.hasNext()) {
+                    break;
+                }
+                page = orderRepository.findAll(page.nextPageable());
+            }
+        }
+        statsRepository.saveAll(rows.values());
+        for (int from = 0; from < counted.size(); from += BACKFILL_BATCH_SIZE) {
+            outboxRepository.markRollupCounted(counted.subList(from, Math.min(counted.size(), from + BACKFILL_BATCH_SIZE)));
+        }
+    }
+
+    // Fold one page of orders up to lastId into the backfill rows
+    private void addCreated(Map<String, SellerDailyStats> rows, List<Order> orders,
+                            Function<Collection<Long>, List<OrderItemDTO>> itemsOf, long lastId) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        // Item quantities for the whole page in one query, without touching lazy collections
+        Map<Long, Long> units = itemsOf.apply(orders.stream().map(Order::getId).toList()).stream()
+                .collect(Collectors.groupingBy(OrderItemDTO::getOrderId, Collectors.summingLong(OrderItemDTO::getQuantity)));
+        for (Order order : orders) {
+            SellerDailyStats delta = order.getId() <= lastId
+                    ? createdDelta(order, order.getStatus(), order.getTotalPrice(), units.getOrDefault(order.getId(), 0L))
+                    : null;
+            if (delta == null) {
+                continue;
+            }
+            rows.merge(delta.getSellerId() + "|" + delta.getStatsDate(), delta, (a, b) -> {
+                a.add(b);
+                return a;
+            });
+        }
+    }
+
+    // Add a delta to the day's row, or store it as the row if this is the seller's first order that day
+    private void apply(SellerDailyStats delta) {
+        if (statsRepository.applyDelta(delta) == 0) {
+            statsRepository.save(delta);
+        }
+    }
+
+    // Delta for one placed order in the given status, or null if it has no seller
+    private SellerDailyStats createdDelta(Order order, String status, double total, long units) {
+        SellerDailyStats delta = deltaFor(order);
+        if (delta == null) {
+            return null;
+        }
+        delta.setOrderCount(1);
+        delta.addStatus(status, 1);
+        if (!"CANCELLED".equals(status)) {
+            delta.setRevenue(total);
+            delta.setUnits(units);
+        }
+        return delta;
+    }
+
+    private SellerDailyStats deltaFor(Order order) {
+        if (order.getSellerId() == null || order.getCreatedAt() == null) {
+            return null;
+        }
+        return new SellerDailyStats(order.getSellerId(), order.getCreatedAt().toLocalDate());
+    }
+
+    // Amounts snapshotted on the event, or the order's own for events written before snapshots existed
+    private double total(Order order, OrderOutboxEvent event) {
+        return event.getOrderTotal() != null ? event.getOrderTotal() : order.getTotalPrice();
+    }
+
+    private long units(Order order, OrderOutboxEvent event) {
+        if (event.getOrderUnits() != null) {
+            return event.getOrderUnits();
+        }
+        if (order.getItems() == null) {
+            return 0;
+        }
+        return order.getItems().stream().mapToLong(OrderItem::getQuantity).sum();
+    }
+}
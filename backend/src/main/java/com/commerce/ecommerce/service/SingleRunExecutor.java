@@ -0,0 +1,47 @@
+package com.commerce.ecommerce.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One named daemon thread for a periodic job, so a slow run blocks neither
+ * the shared scheduler thread nor the other @Scheduled jobs. Work handed in
+ * while the previous run is still going is dropped rather than queued, so
+ * runs never overlap or pile up behind a stalled one.
+ */
+final class SingleRunExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(SingleRunExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+
+    SingleRunExecutor(String threadName) {
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadName);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    // Start the job unless the previous run is still going
+    void execute(Runnable job) {
+        executor.execute(() -> {
+            try {
+                job.run();
+            } catch (RuntimeException e) {
+                // Same as a failed @Scheduled run: log it and try again next time
+                log.error("Periodic job on {} failed", Thread.currentThread().getName(), e);
+            }
+        });
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
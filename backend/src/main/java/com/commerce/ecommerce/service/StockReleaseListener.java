@@ -0,0 +1,48 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.Order;
+import com.commerce.ecommerce.model.OrderItem;
+import com.commerce.ecommerce.model.OrderOutboxEvent;
+import com.commerce.ecommerce.model.OrderStatus;
+import com.commerce.ecommerce.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Puts the stock of a cancelled order back, including into a running flash sale
+@Component
+public class StockReleaseListener implements OrderEventListener {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void onOrderEvent(OrderOutboxEvent event, Order order) {
+        if (order == null || order.getItems() == null || !OrderStatus.CANCELLED.name().equals(event.getToStatus())) {
+            return;
+        }
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItem item : order.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        quantities.forEach((productId, quantity) -> {
+            // Flash-sale grants are reconciled into Product.stock, so the row is restored either way;
+            // a running sale also gets the units back in memory once this transaction commits
+            productRepository.restoreStock(productId, quantity, now);
+            flashSaleService.releaseAfterCommit(productId, quantity);
+        });
+        eventPublisher.publishEvent(new ProductsUpdatedEvent(new ArrayList<>(quantities.keySet())));
+    }
+}
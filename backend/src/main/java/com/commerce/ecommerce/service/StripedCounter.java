@@ -0,0 +1,94 @@
+package com.commerce.ecommerce.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Stock counter split over several CAS-updated stripes, in the spirit of
+ * LongAdder, so concurrent takers mostly touch different cache lines instead
+ * of contending on one value. A take first tries a random home stripe and
+ * only sweeps the others when that stripe runs short.
+ */
+final class StripedCounter {
+
+    // Spread stripes 64 bytes apart so neighbouring stripes don't share a cache line
+    private static final int PAD = 16;
+
+    private final AtomicIntegerArray cells;
+    private final int stripes;
+
+    StripedCounter(int total, int stripes) {
+        this.stripes = stripes;
+        this.cells = new AtomicIntegerArray(stripes * PAD);
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PAD, total / stripes + (i < total % stripes ? 1 : 0));
+        }
+    }
+
+    // Take quantity units, all or nothing
+    boolean tryTake(int quantity) {
+        int home = ThreadLocalRandom.current().nextInt(stripes);
+        if (takeExactly(home, quantity)) {
+            return true;
+        }
+        // Home stripe is short: gather from every stripe and give it back if the total is short too.
+        // Units held during the sweep are briefly invisible to others, which can only cause a false
+        // sold-out near the very end of the stock, never an oversell.
+        int[] taken = new int[stripes];
+        int needed = quantity;
+        for (int i = 0; i < stripes && needed > 0; i++) {
+            int stripe = (home + i) % stripes;
+            taken[stripe] = takeUpTo(stripe, needed);
+            needed -= taken[stripe];
+        }
+        if (needed == 0) {
+            return true;
+        }
+        for (int i = 0; i < stripes; i++) {
+            if (taken[i] > 0) {
+                cells.addAndGet(i * PAD, taken[i]);
+            }
+        }
+        return false;
+    }
+
+    // Put units back, e.g. when the order that took them rolled back
+    void release(int quantity) {
+        cells.addAndGet(ThreadLocalRandom.current().nextInt(stripes) * PAD, quantity);
+    }
+
+    int remaining() {
+        int sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PAD);
+        }
+        return sum;
+    }
+
+    private boolean takeExactly(int stripe, int quantity) {
+        int index = stripe * PAD;
+        while (true) {
+            int current = cells.get(index);
+            if (current < quantity) {
+                return false;
+            }
+            if (cells.compareAndSet(index, current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    private int takeUpTo(int stripe, int quantity) {
+        int index = stripe * PAD;
+        while (true) {
+            int current = cells.get(index);
+            if (current == 0) {
+                return 0;
+            }
+            int take = Math.min(current, quantity);
+            if (cells.compareAndSet(index, current, current - take)) {
+                return take;
+            }
+        }
+    }
+}
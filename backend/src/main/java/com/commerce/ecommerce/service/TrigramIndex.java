@@ -0,0 +1,164 @@
+package com.commerce.ecommerce.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram index over the search vocabulary (distinct terms, not products),
+ * used to find the indexed terms containing a query fragment and the
+ * spellings closest to a misspelled query term. Not thread safe;
+ * ProductSearchIndex guards it with its own lock.
+ */
+class TrigramIndex {
+
+    // Vocabulary entries a similarity lookup may visit, per candidate it checks with edit distance
+    static final int SCAN_FACTOR = 16;
+
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+
+    void add(String term) {
+        for (String trigram : trigrams(term)) {
+            termsByTrigram.computeIfAbsent(trigram, t -> new HashSet<>()).add(term);
+        }
+    }
+
+    void remove(String term) {
+        for (String trigram : trigrams(term)) {
+            Set<String> terms = termsByTrigram.get(trigram);
+            if (terms != null) {
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    termsByTrigram.remove(trigram);
+                }
+            }
+        }
+    }
+
+    void clear() {
+        termsByTrigram.clear();
+    }
+
+    /**
+     * Indexed terms containing the fragment, which must be at least three
+     * characters long, stopping after maxTerms of them. Every such term
+     * carries all of the fragment's inner trigrams, so only the terms under
+     * its rarest trigram are checked.
+     */
+    List<String> termsContaining(String fragment, int maxTerms) {
+        Set<String> rarest = null;
+        for (int i = 0; i + 3 <= fragment.length(); i++) {
+            Set<String> terms = termsByTrigram.get(fragment.substring(i, i + 3));
+            if (terms == null) {
+                return new ArrayList<>();
+            }
+            if (rarest == null || terms.size() < rarest.size()) {
+                rarest = terms;
+            }
+        }
+        List<String> matches = new ArrayList<>();
+        for (String term : rarest) {
+            if (matches.size() >= maxTerms) {
+                break;
+            }
+            if (term.contains(fragment)) {
+                matches.add(term);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Indexed terms within the allowed edit distance of the query term, with
+     * a similarity in (0, 1]. Candidates are gathered from the query's
+     * trigrams rarest first, visiting at most SCAN_FACTOR * maxCandidates
+     * vocabulary entries in all: common trigrams such as the padded first
+     * letter are shared by a large part of the vocabulary and say little
+     * about a match, so they are the ones left out once the budget is spent.
+     * Candidates are ranked by shared trigrams and only the best
+     * maxCandidates of them are checked with edit distance.
+     */
+    Map<String, Float> similarTerms(String query, int maxCandidates) {
+        int maxEdits = query.length() <= 4 ? 1 : 2;
+        Set<String> queryTrigrams = trigrams(query);
+
+        List<Set<String>> postings = new ArrayList<>();
+        for (String trigram : queryTrigrams) {
+            Set<String> terms = termsByTrigram.get(trigram);
+            if (terms != null) {
+                postings.add(terms);
+            }
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        Map<String, Integer> overlap = new HashMap<>();
+        int budget = SCAN_FACTOR * maxCandidates;
+        scan:
+        for (Set<String> terms : postings) {
+            for (String term : terms) {
+                if (budget-- <= 0) {
+                    break scan;
+                }
+                if (Math.abs(term.length() - query.length()) <= maxEdits) {
+                    overlap.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+
+        List<Map.Entry<String, Integer>> ranked = new ArrayList<>(overlap.entrySet());
+        ranked.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+
+        Map<String, Float> similar = new HashMap<>();
+        for (int i = 0; i < ranked.size() && i < maxCandidates; i++) {
+            String term = ranked.get(i).getKey();
+            int distance = editDistance(query, term, maxEdits);
+            if (distance > maxEdits) {
+                continue;
+            }
+            float dice = 2f * ranked.get(i).getValue() / (queryTrigrams.size() + trigrams(term).size());
+            float closeness = 1f - (float) distance / Math.max(query.length(), term.length());
+            similar.put(term, (dice + closeness) / 2f);
+        }
+        return similar;
+    }
+
+    // Trigrams of the term padded with spaces, so short terms and word boundaries still produce trigrams
+    static Set<String> trigrams(String term) {
+        String padded = "  " + term + " ";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    // Levenshtein distance, giving up early once every path exceeds the limit
+    static int editDistance(String a, String b, int limit) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
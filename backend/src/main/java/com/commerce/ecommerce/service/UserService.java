@@ -5,6 +5,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import com.commerce.ecommerce.repository.UserRepository;
 import com.commerce.ecommerce.model.User;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -129,17 +130,18 @@ public class UserService {
         return null;
     }
 
-    // Update ratings
+    // Update ratings: add one rating (whole stars) to the user's totals with a single atomic UPDATE
+    @Transactional
     public User updateRating(Long userId, double newRating) {
-        Optional<User> user = userRepository.findById(userId);
-        if (user.isPresent()) {
-            User u = user.get();
-            int totalReviews = u.getTotalReviews() + 1;
-            double avgRating = (u.getRatings() * u.getTotalReviews() + newRating) / totalReviews;
-            u.setRatings(avgRating);
-            u.setTotalReviews(totalReviews);
-            return userRepository.save(u);
+        if (userRepository.applyRatingDelta(userId, Math.round(newRating), 1) == 0) {
+            return null;
         }
-        return null;
+        return userRepository.findById(userId).orElse(null);
+    }
+
+    // Apply the net rating change of queued reviews to a seller; joins the caller's transaction
+    @Transactional
+    public void applySellerRatingDelta(Long sellerId, long sum, int count) {
+        userRepository.applyRatingDelta(sellerId, sum, count);
     }
 }
@@ -0,0 +1,128 @@
+package com.commerce.ecommerce.repository;
+
+import com.commerce.ecommerce.dto.ProductDTO;
+import com.commerce.ecommerce.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The seller, active and category listings filter in the database through the product indexes
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class ProductRepositoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.save(product("Desk lamp", 1L, "Home", "ACTIVE", 5));
+        productRepository.save(product("Armchair", 1L, "Home", "INACTIVE", 2));
+        productRepository.save(product("Headphones", 2L, "Electronics", "ACTIVE", 0));
+        productRepository.save(product("Keyboard", 2L, "Electronics", "ACTIVE", 7));
+        productRepository.flush();
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void sellerListingsUseTheSellerIndex() throws SQLException {
+        List<ProductDTO> listings = productRepository.findListingsBySellerId(1L);
+
+        assertThat(listings).extracting(ProductDTO::getName).containsExactlyInAnyOrder("Desk lamp", "Armchair");
+        assertIndexedQuery(1L);
+    }
+
+    @Test
+    void sellerProductsUseTheSellerIndex() throws SQLException {
+        List<Product> products = productRepository.findBySellerId(2L);
+
+        assertThat(products).extracting(Product::getName).containsExactlyInAnyOrder("Headphones", "Keyboard");
+        assertIndexedQuery(2L);
+    }
+
+    @Test
+    void activeListingsUseTheStatusIndex() throws SQLException {
+        List<ProductDTO> listings = productRepository.findActiveListings();
+
+        assertThat(listings).extracting(ProductDTO::getName).containsExactlyInAnyOrder("Desk lamp", "Keyboard");
+        assertIndexedQuery();
+    }
+
+    @Test
+    void activeProductsUseTheStatusIndex() throws SQLException {
+        List<Product> products = productRepository.findByStatusAndStockGreaterThan("ACTIVE", 0);
+
+        assertThat(products).extracting(Product::getName).containsExactlyInAnyOrder("Desk lamp", "Keyboard");
+        assertIndexedQuery("ACTIVE", 0);
+    }
+
+    @Test
+    void categoryListingsUseTheCategoryIndex() throws SQLException {
+        List<ProductDTO> listings = productRepository.findActiveListingsByCategory("Electronics");
+
+        assertThat(listings).extracting(ProductDTO::getName).containsExactlyInAnyOrder("Headphones", "Keyboard");
+        assertIndexedQuery("Electronics");
+    }
+
+    @Test
+    void categoryProductsUseTheCategoryIndex() throws SQLException {
+        List<Product> products = productRepository.findByCategoryAndStatus("Home", "ACTIVE");
+
+        assertThat(products).extracting(Product::getName).containsExactly("Desk lamp");
+        assertIndexedQuery("Home", "ACTIVE");
+    }
+
+    // The one product query just run has a WHERE clause and H2 plans it on an index, not a table scan
+    private void assertIndexedQuery(Object... parameters) throws SQLException {
+        List<String> selects = RecordingStatementInspector.selectsFrom("product");
+        assertThat(selects).hasSize(1);
+        String sql = selects.get(0);
+        assertThat(sql.toLowerCase()).contains(" where ");
+
+        String plan = explain(sql, parameters);
+        assertThat(plan).as(plan).doesNotContainIgnoringCase("tableScan").containsIgnoringCase("IDX_PRODUCT_");
+    }
+
+    private String explain(String sql, Object... parameters) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet result = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (result.next()) {
+                    plan.append(result.getString(1)).append('\n');
+                }
+                return plan.toString();
+            }
+        }
+    }
+
+    private static Product product(String name, Long sellerId, String category, String status, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(10);
+        product.setSellerId(sellerId);
+        product.setCategory(category);
+        product.setStatus(status);
+        product.setStock(stock);
+        return product;
+    }
+}
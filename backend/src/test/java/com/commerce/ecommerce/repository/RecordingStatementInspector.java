@@ -0,0 +1,35 @@
+package com.commerce.ecommerce.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Keeps the SQL statements Hibernate prepares, for tests that assert on the generated queries.
+// Statements are kept per thread so background jobs of a running application don't show up.
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> statements = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        statements.get().add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        statements.get().clear();
+    }
+
+    // Statements recorded on this thread since the last clear
+    public static List<String> statements() {
+        return List.copyOf(statements.get());
+    }
+
+    // Statements recorded on this thread since the last clear that read from the given table
+    public static List<String> selectsFrom(String table) {
+        return statements.get().stream()
+                .filter(sql -> sql.toLowerCase().startsWith("select") && sql.toLowerCase().contains(" from " + table + " "))
+                .toList();
+    }
+}
@@ -0,0 +1,116 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.Order;
+import com.commerce.ecommerce.model.OrderItem;
+import com.commerce.ecommerce.repository.OrderRepository;
+import com.commerce.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.commerce.ecommerce.service.HarnessSupport.concurrently;
+import static com.commerce.ecommerce.service.HarnessSupport.product;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput harness for flash sales. Buyer threads order one unit at a
+ * time until the product sells out, once with the product on flash sale
+ * and once through the plain row-level stock decrement, and the harness
+ * reports orders per second for both. Either way every unit must be sold
+ * exactly once and the stored stock must end at zero. Stock and buyer
+ * counts can be raised with -Dharness.stock and -Dharness.buyers.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class FlashSaleThroughputHarnessTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FlashSaleThroughputHarnessTest.class);
+
+    private static final int STOCK = Integer.getInteger("harness.stock", 500);
+    private static final int BUYERS = Integer.getInteger("harness.buyers", 200);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    void flashSaleSellsEveryUnitExactlyOnce() throws InterruptedException {
+        Long productId = productRepository.save(product("Flash sale console", STOCK)).getId();
+        assertThat(flashSaleService.start(productId)).isTrue();
+
+        Outcome outcome = sellOut(productId, 9401L);
+        assertThat(flashSaleService.stop(productId)).isTrue();
+        log.info("Flash sale: {} units to {} buyers in {} ms, {} orders/s", STOCK, BUYERS, outcome.run.millis, outcome.ordersPerSecond());
+
+        assertSoldOut(productId, 9401L, outcome);
+    }
+
+    @Test
+    void rowLevelStockSellsEveryUnitExactlyOnce() throws InterruptedException {
+        Long productId = productRepository.save(product("Regular console", STOCK)).getId();
+
+        Outcome outcome = sellOut(productId, 9402L);
+        log.info("Row-level stock: {} units to {} buyers in {} ms, {} orders/s", STOCK, BUYERS, outcome.run.millis, outcome.ordersPerSecond());
+
+        assertSoldOut(productId, 9402L, outcome);
+    }
+
+    private void assertSoldOut(Long productId, Long sellerId, Outcome outcome) {
+        assertThat(outcome.run.failures).isEmpty();
+        assertThat(outcome.placed.get()).isEqualTo(STOCK);
+        assertThat(productRepository.findById(productId).orElseThrow().getStock()).isZero();
+        assertThat(orderRepository.findBySellerId(sellerId)).hasSize(STOCK);
+    }
+
+    // Every buyer keeps ordering one unit until told the product is sold out
+    private Outcome sellOut(Long productId, Long sellerId) throws InterruptedException {
+        Outcome outcome = new Outcome();
+        outcome.run = concurrently(BUYERS, Duration.ofMinutes(5), buyer -> {
+            try {
+                while (true) {
+                    orderService.createOrder(order(9500L + buyer, sellerId, productId));
+                    outcome.placed.incrementAndGet();
+                }
+            } catch (InsufficientStockException e) {
+                // Sold out
+            }
+        });
+        return outcome;
+    }
+
+    private static Order order(Long buyerId, Long sellerId, Long productId) {
+        Order order = new Order();
+        order.setBuyerId(buyerId);
+        order.setSellerId(sellerId);
+        order.setTotalPrice(10);
+        List<OrderItem> items = new ArrayList<>();
+        items.add(new OrderItem(productId, 1, 10));
+        order.setItems(items);
+        return order;
+    }
+
+    private static final class Outcome {
+        final AtomicInteger placed = new AtomicInteger();
+        HarnessSupport.Run run;
+
+        long ordersPerSecond() {
+            return placed.get() * 1000L / run.millis;
+        }
+    }
+}
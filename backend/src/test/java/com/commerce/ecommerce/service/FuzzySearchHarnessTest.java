@@ -0,0 +1,131 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.Product;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.commerce.ecommerce.service.HarnessSupport.percentile;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency harness for typo tolerant search over a synthetic catalog. Every
+ * product is named after two words of a random vocabulary, and each query
+ * is a product's name with one typo. The harness checks that the product
+ * is found and reports recall and query latency percentiles. The catalog
+ * defaults to 100k products; -Dharness.products=1000000 runs the 1M size,
+ * where the vocabulary grows to 250k terms and the default candidate cap
+ * finds well under 95% of the products, so that run needs a higher
+ * -Dharness.max-candidates to pass. -Dharness.queries sets the query count.
+ */
+class FuzzySearchHarnessTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FuzzySearchHarnessTest.class);
+
+    private static final int PRODUCTS = Integer.getInteger("harness.products", 100_000);
+    private static final int QUERIES = Integer.getInteger("harness.queries", 2_000);
+
+    // Same limits as the application defaults
+    private static final int MAX_CANDIDATES = Integer.getInteger("harness.max-candidates", 64);
+    private static final int MAX_HITS = 1000;
+    private static final int LIMIT = 20;
+
+    // Generous ceiling so the build only fails on an unbounded scan, not on a slow machine
+    private static final long MAX_P99_MICROS = 100_000;
+
+    private static final ProductSearchIndex index = new ProductSearchIndex();
+    private static final List<String[]> names = new ArrayList<>();
+
+    @BeforeAll
+    static void buildCatalog() {
+        Random random = new Random(42);
+        String[] vocabulary = new String[Math.max(500, PRODUCTS / 4)];
+        for (int i = 0; i < vocabulary.length; i++) {
+            vocabulary[i] = word(random);
+        }
+        for (long id = 1; id <= PRODUCTS; id++) {
+            String[] name = {vocabulary[random.nextInt(vocabulary.length)], vocabulary[random.nextInt(vocabulary.length)]};
+            names.add(name);
+            Product product = new Product();
+            product.setId(id);
+            product.setName(name[0] + " " + name[1]);
+            // Every product shares these terms, the worst case for a broad query
+            product.setDescription("handmade quality product");
+            product.setCategory("Home");
+            product.setStatus("ACTIVE");
+            product.setStock(1);
+            product.setPrice(random.nextInt(5000));
+            index.index(product);
+        }
+    }
+
+    @Test
+    void misspelledNamesFindTheirProduct() {
+        Random random = new Random(7);
+        long[] micros = new long[QUERIES];
+        int found = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            int target = random.nextInt(PRODUCTS);
+            String[] name = names.get(target);
+            String query = typo(name[0], random) + " " + name[1];
+
+            long start = System.nanoTime();
+            List<Long> ids = index.searchFuzzy(query, MAX_CANDIDATES, MAX_HITS, LIMIT);
+            micros[q] = (System.nanoTime() - start) / 1_000;
+
+            if (ids.contains(target + 1L)) {
+                found++;
+            }
+        }
+        report("misspelled name", micros);
+        log.info("{} products, {} candidates per term: {} of {} misspelled names found", PRODUCTS, MAX_CANDIDATES, found, QUERIES);
+
+        assertThat(found).as("queries that found their product").isGreaterThanOrEqualTo(QUERIES * 95 / 100);
+        assertThat(percentile(micros, 99)).isLessThanOrEqualTo(MAX_P99_MICROS);
+    }
+
+    @Test
+    void termsSharedByTheWholeCatalogStayBounded() {
+        long[] micros = new long[QUERIES / 10];
+        for (int q = 0; q < micros.length; q++) {
+            long start = System.nanoTime();
+            List<Long> ids = index.searchFuzzy("handmde qualty", MAX_CANDIDATES, MAX_HITS, LIMIT);
+            micros[q] = (System.nanoTime() - start) / 1_000;
+            assertThat(ids).hasSize(LIMIT);
+        }
+        report("catalog-wide terms", micros);
+
+        assertThat(percentile(micros, 99)).isLessThanOrEqualTo(MAX_P99_MICROS);
+    }
+
+    private static void report(String name, long[] micros) {
+        log.info("{} products, {} ({} queries): p50 {} us, p99 {} us, max {} us", PRODUCTS, name, micros.length,
+                percentile(micros, 50), percentile(micros, 99), percentile(micros, 100));
+    }
+
+    // Pronounceable 6 to 9 letter word
+    private static String word(Random random) {
+        String consonants = "bcdfghklmnprstvz";
+        String vowels = "aeiou";
+        StringBuilder word = new StringBuilder();
+        int length = 6 + random.nextInt(4);
+        while (word.length() < length) {
+            word.append(consonants.charAt(random.nextInt(consonants.length())));
+            word.append(vowels.charAt(random.nextInt(vowels.length())));
+        }
+        return word.substring(0, length);
+    }
+
+    // Replace one letter past the first two
+    private static String typo(String word, Random random) {
+        char[] letters = word.toCharArray();
+        int at = 2 + random.nextInt(letters.length - 2);
+        letters[at] = letters[at] == 'x' ? 'y' : 'x';
+        return new String(letters);
+    }
+}
@@ -0,0 +1,77 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.Product;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Helpers shared by the load harnesses in this package: starting many
+ * threads at once and collecting what they threw, latency percentiles and
+ * throwaway products.
+ */
+final class HarnessSupport {
+
+    private HarnessSupport() {
+    }
+
+    // Run the body on every thread, released together, and wait for all of them to finish
+    static Run concurrently(int threads, Duration timeout, ThreadBody body) throws InterruptedException {
+        Run run = new Run();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int thread = 0; thread < threads; thread++) {
+            int index = thread;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    body.run(index);
+                } catch (Throwable e) {
+                    run.failures.add(e);
+                }
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+        run.millis = Math.max(1, (System.nanoTime() - begin) / 1_000_000);
+        return run;
+    }
+
+    // Nearest-rank percentile; 100 is the maximum
+    static long percentile(long[] values, int percentile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, rank)];
+    }
+
+    // An active product priced at 10, not saved yet
+    static Product product(String name, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(10);
+        product.setStatus("ACTIVE");
+        product.setStock(stock);
+        return product;
+    }
+
+    interface ThreadBody {
+        void run(int thread) throws Exception;
+    }
+
+    // Wall time of a concurrent run and anything its threads threw
+    static final class Run {
+        final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        long millis;
+    }
+}
@@ -0,0 +1,98 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.dto.OrderDTO;
+import com.commerce.ecommerce.model.Order;
+import com.commerce.ecommerce.model.OrderItem;
+import com.commerce.ecommerce.repository.OrderRepository;
+import com.commerce.ecommerce.repository.RecordingStatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Order history costs the same few statements however many orders and items it returns
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderHistoryQueryCountTest {
+
+    // Orders and their items, plus archived orders and theirs when the archive may reach back that far
+    private static final int MAX_STATEMENTS = 4;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    void buyerHistoryDoesNotQueryPerOrder() {
+        saveOrders(9001L, 9101L, 3);
+        int few = countStatements(() -> orderService.getBuyerOrderHistory(9001L), 3);
+
+        saveOrders(9002L, 9102L, 60);
+        int many = countStatements(() -> orderService.getBuyerOrderHistory(9002L), 60);
+
+        assertThat(many).isEqualTo(few).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    @Test
+    void sellerHistoryDoesNotQueryPerOrder() {
+        saveOrders(9003L, 9103L, 3);
+        int few = countStatements(() -> orderService.getSellerOrderHistory(9103L), 3);
+
+        saveOrders(9004L, 9104L, 60);
+        int many = countStatements(() -> orderService.getSellerOrderHistory(9104L), 60);
+
+        assertThat(many).isEqualTo(few).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    @Test
+    void historyPagesDoNotQueryPerOrder() {
+        saveOrders(9005L, 9105L, 60);
+        int first = countStatements(() -> orderService.getBuyerOrdersPage(9005L, null, 5).getItems(), 5);
+        int large = countStatements(() -> orderService.getBuyerOrdersPage(9005L, null, 50).getItems(), 50);
+
+        assertThat(large).isEqualTo(first).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    // Statements prepared while loading the history; every order comes back with its two items
+    private static int countStatements(Supplier<List<OrderDTO>> history, int expectedOrders) {
+        RecordingStatementInspector.clear();
+        List<OrderDTO> orders = history.get();
+        int statements = RecordingStatementInspector.statements().size();
+
+        assertThat(orders).hasSize(expectedOrders);
+        assertThat(orders).allSatisfy(order -> assertThat(order.getItems()).hasSize(2));
+        return statements;
+    }
+
+    private void saveOrders(Long buyerId, Long sellerId, int count) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setBuyerId(buyerId);
+            order.setSellerId(sellerId);
+            order.setTotalPrice(30);
+            order.setCreatedAt(LocalDateTime.now().minusMinutes(i));
+            List<OrderItem> items = new ArrayList<>();
+            items.add(item(order, 1L, 1, 10));
+            items.add(item(order, 2L, 2, 10));
+            order.setItems(items);
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders);
+    }
+
+    private static OrderItem item(Order order, Long productId, int quantity, double price) {
+        OrderItem item = new OrderItem(productId, quantity, price);
+        item.setOrder(order);
+        return item;
+    }
+}
@@ -0,0 +1,111 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.Order;
+import com.commerce.ecommerce.model.OrderItem;
+import com.commerce.ecommerce.repository.OrderRepository;
+import com.commerce.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static com.commerce.ecommerce.service.HarnessSupport.concurrently;
+import static com.commerce.ecommerce.service.HarnessSupport.product;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Concurrent orders for the same products never sell more units than are in stock. Hundreds of
+// buyers by default; -Dharness.buyers changes how many.
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderStockConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStockConcurrencyTest.class);
+
+    private static final int BUYERS = Integer.getInteger("harness.buyers", 200);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    void lastUnitsGoToExactlyAsManyOrdersAsThereIsStock() throws InterruptedException {
+        Long productId = productRepository.save(product("Limited sneakers", 10)).getId();
+
+        Outcome outcome = placeConcurrently(buyer -> order(9201L, buyer, item(productId, 1)));
+        log.info("One hot product: {} buyers, {} placed, {} rejected in {} ms, {} checkouts/s",
+                BUYERS, outcome.placed, outcome.rejected, outcome.run.millis, BUYERS * 1000L / outcome.run.millis);
+
+        assertThat(outcome.run.failures).isEmpty();
+        assertThat(outcome.placed.get()).isEqualTo(10);
+        assertThat(outcome.rejected.get()).isEqualTo(BUYERS - 10);
+        assertThat(stockOf(productId)).isZero();
+        assertThat(orderRepository.findBySellerId(9201L)).hasSize(10);
+    }
+
+    @Test
+    void ordersForSeveralProductsReserveAllOrNothingWithoutDeadlocks() throws InterruptedException {
+        Long shirts = productRepository.save(product("Shirt", 15)).getId();
+        Long socks = productRepository.save(product("Socks", 25)).getId();
+
+        // Half of the buyers list the products the other way round
+        Outcome outcome = placeConcurrently(buyer -> buyer % 2 == 0
+                ? order(9202L, buyer, item(shirts, 1), item(socks, 2))
+                : order(9202L, buyer, item(socks, 2), item(shirts, 1)));
+
+        assertThat(outcome.run.failures).isEmpty();
+        int placed = outcome.placed.get();
+        assertThat(placed).isEqualTo(12);
+        assertThat(stockOf(shirts)).isEqualTo(15 - placed);
+        assertThat(stockOf(socks)).isEqualTo(25 - 2 * placed);
+    }
+
+    private Outcome placeConcurrently(IntFunction<Order> orderOf) throws InterruptedException {
+        Outcome outcome = new Outcome();
+        outcome.run = concurrently(BUYERS, Duration.ofSeconds(60), buyer -> {
+            try {
+                orderService.createOrder(orderOf.apply(buyer));
+                outcome.placed.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                outcome.rejected.incrementAndGet();
+            }
+        });
+        return outcome;
+    }
+
+    private int stockOf(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getStock();
+    }
+
+    private static Order order(Long sellerId, int buyer, OrderItem... items) {
+        Order order = new Order();
+        order.setBuyerId(9300L + buyer);
+        order.setSellerId(sellerId);
+        List<OrderItem> list = new ArrayList<>(List.of(items));
+        order.setItems(list);
+        order.setTotalPrice(list.stream().mapToDouble(item -> item.getPrice() * item.getQuantity()).sum());
+        return order;
+    }
+
+    private static OrderItem item(Long productId, int quantity) {
+        return new OrderItem(productId, quantity, 10);
+    }
+
+    private static final class Outcome {
+        final AtomicInteger placed = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        HarnessSupport.Run run;
+    }
+}
@@ -0,0 +1,119 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.model.Product;
+import com.commerce.ecommerce.model.Review;
+import com.commerce.ecommerce.model.User;
+import com.commerce.ecommerce.repository.ProductRepository;
+import com.commerce.ecommerce.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.commerce.ecommerce.service.HarnessSupport.concurrently;
+import static com.commerce.ecommerce.service.HarnessSupport.percentile;
+import static com.commerce.ecommerce.service.HarnessSupport.product;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Burst harness for the rating queue. Reviewer threads post reviews of one
+ * product all at once, then every tenth review is deleted again, and the
+ * harness reports how long posting a review took. Once the queue is
+ * flushed the product's and its seller's totals must count every review
+ * left exactly once, with far fewer product updates than review changes.
+ * Review and thread counts can be raised with -Dharness.reviews and
+ * -Dharness.threads.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReviewBurstHarnessTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewBurstHarnessTest.class);
+
+    private static final int REVIEWS = Integer.getInteger("harness.reviews", 400);
+    private static final int THREADS = Integer.getInteger("harness.threads", 16);
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private RatingUpdateQueue ratingUpdateQueue;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void burstOfReviewsIsCountedExactlyOnce() throws InterruptedException {
+        Long sellerId = userRepository.save(new User(null, "Burst seller", "burst-seller@example.com", "secret", "SELLER")).getId();
+        Product kettle = product("Much reviewed kettle", 1);
+        kettle.setSellerId(sellerId);
+        Long productId = productRepository.save(kettle).getId();
+        Map<String, Long> before = ratingUpdateQueue.stats();
+
+        long[] micros = new long[REVIEWS];
+        HarnessSupport.Run burst = post(productId, micros);
+        assertThat(burst.failures).isEmpty();
+        List<Review> reviews = reviewService.getProductReviews(productId);
+        assertThat(reviews).hasSize(REVIEWS);
+
+        int[] stars = new int[6];
+        reviews.forEach(review -> stars[review.getRating()]++);
+        int deleted = 0;
+        for (int i = 0; i < reviews.size(); i += 10) {
+            reviewService.deleteReview(reviews.get(i).getId());
+            stars[reviews.get(i).getRating()]--;
+            deleted++;
+        }
+        ratingUpdateQueue.flush();
+
+        Map<String, Long> after = ratingUpdateQueue.stats();
+        long changes = after.get("queuedChanges") - before.get("queuedChanges");
+        long updates = after.get("productUpdates") - before.get("productUpdates");
+        log.info("{} reviews from {} threads: p50 {} us, p99 {} us, max {} us; {} changes applied in {} product updates",
+                REVIEWS, THREADS, percentile(micros, 50), percentile(micros, 99),
+                percentile(micros, 100), changes, updates);
+
+        int count = REVIEWS - deleted;
+        long sum = 0;
+        for (int s = 1; s <= 5; s++) {
+            sum += (long) s * stars[s];
+        }
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertThat(product.getReviews()).isEqualTo(count);
+        assertThat(product.getRatingSum()).isEqualTo(sum);
+        assertThat(new int[] {product.getOneStar(), product.getTwoStars(), product.getThreeStars(),
+                product.getFourStars(), product.getFiveStars()}).containsExactly(Arrays.copyOfRange(stars, 1, 6));
+
+        User seller = userRepository.findById(sellerId).orElseThrow();
+        assertThat(seller.getTotalReviews()).isEqualTo(count);
+        assertThat(seller.getRatingSum()).isEqualTo(sum);
+
+        assertThat(after.get("pendingProducts")).isZero();
+        assertThat(after.get("failedUpdates")).isEqualTo(before.get("failedUpdates"));
+        assertThat(changes).isEqualTo(REVIEWS + deleted);
+        assertThat(updates).isPositive().isLessThanOrEqualTo(changes / 2);
+    }
+
+    // Every thread posts its share of the reviews as fast as it can, timing each one
+    private HarnessSupport.Run post(Long productId, long[] micros) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        return concurrently(THREADS, Duration.ofMinutes(5), thread -> {
+            for (int i = next.getAndIncrement(); i < REVIEWS; i = next.getAndIncrement()) {
+                long begin = System.nanoTime();
+                reviewService.createReview(new Review(productId, 9800L + i, 1 + i % 5, "Burst review " + i));
+                micros[i] = (System.nanoTime() - begin) / 1_000;
+            }
+        });
+    }
+}
@@ -0,0 +1,221 @@
+package com.commerce.ecommerce.service;
+
+import com.commerce.ecommerce.dto.SalesAnalyticsDTO;
+import com.commerce.ecommerce.dto.SellerSalesDTO;
+import com.commerce.ecommerce.model.Order;
+import com.commerce.ecommerce.model.OrderItem;
+import com.commerce.ecommerce.model.Product;
+import com.commerce.ecommerce.repository.ArchivedOrderItemRepository;
+import com.commerce.ecommerce.repository.ArchivedOrderRepository;
+import com.commerce.ecommerce.repository.OrderItemRepository;
+import com.commerce.ecommerce.repository.OrderRepository;
+import com.commerce.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.commerce.ecommerce.service.HarnessSupport.product;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Scaling harness for sales analytics. Synthetic orders are spread over a
+ * month long ago, the first half archived and the second half left live,
+ * and the harness totals them independently while seeding. The range is
+ * then computed by a single aggregation worker and by one per core, at
+ * least two; both must match the independent totals, and the harness
+ * reports the best of a few runs for each. Order count and chunk size can
+ * be changed with -Dharness.orders and -Dharness.chunk-size.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SalesAnalyticsHarnessTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesAnalyticsHarnessTest.class);
+
+    private static final int ORDERS = Integer.getInteger("harness.orders", 4_000);
+    private static final int CHUNK_SIZE = Integer.getInteger("harness.chunk-size", 1_000);
+    private static final int RUNS = 3;
+    private static final int TOP = 5;
+
+    // Old enough for the archive and clear of every other test's orders
+    private static final LocalDate FROM = LocalDate.of(2001, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2001, 3, 30);
+    private static final int DAYS = 30;
+    private static final long FIRST_SELLER = 9600L;
+    private static final int SELLERS = 40;
+    private static final List<String> CATEGORIES = List.of("Home", "Electronics", "Books", "Garden");
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void parallelAggregationMatchesIndependentTotals() {
+        List<Long> productIds = new ArrayList<>();
+        for (String category : CATEGORIES) {
+            Product product = product("Analytics " + category, 1);
+            product.setCategory(category);
+            productIds.add(productRepository.save(product).getId());
+        }
+        // Never saved, so its items count as uncategorized
+        productIds.add(Long.MAX_VALUE);
+
+        Expected expected = new Expected();
+        Random random = new Random(42);
+        saveOrders(ORDERS / 2, "DELIVERED", productIds, random, expected);
+        orderArchiveService.archive();
+        assertThat(archivedOrderRepository.findMinIdCreatedBetween(FROM.atStartOfDay(), TO.atStartOfDay()))
+                .as("archived orders in range").isNotNull();
+        saveOrders(ORDERS - ORDERS / 2, "SHIPPED", productIds, random, expected);
+
+        SalesAnalyticsDTO single = timed(1, expected);
+        // At least two workers, so results are merged across threads even on a single core
+        SalesAnalyticsDTO parallel = timed(Math.max(2, Runtime.getRuntime().availableProcessors()), expected);
+
+        assertThat(parallel.getGmvByDay()).containsOnlyKeys(single.getGmvByDay().keySet());
+        assertThat(parallel.getSellerCount()).isEqualTo(single.getSellerCount());
+    }
+
+    // Best wall time of a few uncached runs with the given number of aggregation workers
+    private SalesAnalyticsDTO timed(int parallelism, Expected expected) {
+        SalesAnalyticsService service = service(parallelism);
+        try {
+            SalesAnalyticsDTO result = null;
+            long best = Long.MAX_VALUE;
+            for (int run = 0; run < RUNS; run++) {
+                long start = System.nanoTime();
+                result = service.getSales(FROM, TO, TOP);
+                best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+                assertMatches(result, expected);
+            }
+            log.info("{} orders, {} items in chunks of {}: {} worker(s) best {} ms over {} runs",
+                    expected.orders, expected.items, CHUNK_SIZE, parallelism, best, RUNS);
+            return result;
+        } finally {
+            ReflectionTestUtils.invokeMethod(service, "shutdown");
+        }
+    }
+
+    private static void assertMatches(SalesAnalyticsDTO result, Expected expected) {
+        assertThat(result.getOrderCount()).isEqualTo(expected.orders);
+        assertThat(result.getItemCount()).isEqualTo(expected.items);
+        assertThat(result.getUnits()).isEqualTo(expected.units);
+        assertThat(result.getGmv()).isCloseTo(expected.gmv, within(0.01));
+        assertThat(result.getGmvByDay()).hasSize(DAYS);
+        expected.gmvByDay.forEach((day, gmv) ->
+                assertThat(result.getGmvByDay().get(day)).as(day.toString()).isCloseTo(gmv, within(0.01)));
+        assertThat(result.getGmvByCategory()).containsOnlyKeys(expected.gmvByCategory.keySet());
+        expected.gmvByCategory.forEach((category, gmv) ->
+                assertThat(result.getGmvByCategory().get(category)).as(category).isCloseTo(gmv, within(0.01)));
+        assertThat(result.getSellerCount()).isEqualTo(expected.gmvBySeller.size());
+
+        List<Double> topGmv = expected.gmvBySeller.values().stream()
+                .sorted(Comparator.reverseOrder()).limit(TOP).toList();
+        assertThat(result.getTopSellers()).hasSize(TOP);
+        for (int i = 0; i < TOP; i++) {
+            SellerSalesDTO seller = result.getTopSellers().get(i);
+            assertThat(seller.getGmv()).isCloseTo(topGmv.get(i), within(0.01));
+            assertThat(seller.getGmv()).isCloseTo(expected.gmvBySeller.get(seller.getSellerId()), within(0.01));
+        }
+    }
+
+    // A service of its own so the worker count can differ from the application's, with caching off
+    private SalesAnalyticsService service(int parallelism) {
+        SalesAnalyticsService service = new SalesAnalyticsService();
+        ReflectionTestUtils.setField(service, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(service, "orderItemRepository", orderItemRepository);
+        ReflectionTestUtils.setField(service, "archivedOrderRepository", archivedOrderRepository);
+        ReflectionTestUtils.setField(service, "archivedOrderItemRepository", archivedOrderItemRepository);
+        ReflectionTestUtils.setField(service, "chunkSize", CHUNK_SIZE);
+        ReflectionTestUtils.setField(service, "parallelism", parallelism);
+        ReflectionTestUtils.setField(service, "cacheTtl", Duration.ZERO);
+        ReflectionTestUtils.setField(service, "cacheMaxEntries", 1);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    // Orders of one to four items each; about one in ten is cancelled and counts for nothing
+    private void saveOrders(int count, String status, List<Long> productIds, Random random, Expected expected) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDateTime createdAt = FROM.plusDays(random.nextInt(DAYS)).atTime(random.nextInt(24), random.nextInt(60));
+            boolean cancelled = random.nextInt(10) == 0;
+            Order order = new Order();
+            order.setBuyerId(9700L);
+            order.setSellerId(FIRST_SELLER + random.nextInt(SELLERS));
+            order.setStatus(cancelled ? "CANCELLED" : status);
+            order.setCreatedAt(createdAt);
+            order.setUpdatedAt(createdAt);
+            List<OrderItem> items = new ArrayList<>();
+            double total = 0;
+            for (int n = 1 + random.nextInt(4); n > 0; n--) {
+                int index = random.nextInt(productIds.size());
+                int quantity = 1 + random.nextInt(3);
+                double price = random.nextInt(10_000) / 100.0;
+                OrderItem item = new OrderItem(productIds.get(index), quantity, price);
+                item.setOrder(order);
+                items.add(item);
+                total += price * quantity;
+                if (!cancelled) {
+                    expected.add(order, index < productIds.size() - 1 ? CATEGORIES.get(index) : "Uncategorized",
+                            quantity, price * quantity);
+                }
+            }
+            order.setItems(items);
+            order.setTotalPrice(total);
+            orders.add(order);
+            if (!cancelled) {
+                expected.orders++;
+            }
+        }
+        orderRepository.saveAll(orders);
+    }
+
+    private static final class Expected {
+        final Map<LocalDate, Double> gmvByDay = new HashMap<>();
+        final Map<String, Double> gmvByCategory = new HashMap<>();
+        final Map<Long, Double> gmvBySeller = new HashMap<>();
+        double gmv;
+        long orders;
+        long items;
+        long units;
+
+        void add(Order order, String category, int quantity, double amount) {
+            gmvByDay.merge(order.getCreatedAt().toLocalDate(), amount, Double::sum);
+            gmvByCategory.merge(category, amount, Double::sum);
+            gmvBySeller.merge(order.getSellerId(), amount, Double::sum);
+            gmv += amount;
+            items++;
+            units += quantity;
+        }
+    }
+}
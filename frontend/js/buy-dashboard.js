@@ -274,9 +274,7 @@ function addToWishlist(productId) {
 document.addEventListener('DOMContentLoaded', function() {
     console.log('Buy Dashboard loaded');
     
-    // Load products immediately
+    // Load products immediately; buy-dashboard.html replaces loadProducts with a paged
+    // backend version and refreshes only its newest page, so nothing is polled here
     loadProducts();
-    
-    // Auto-refresh every 5 seconds to show new products
-    setInterval(loadProducts, 5000);
 });